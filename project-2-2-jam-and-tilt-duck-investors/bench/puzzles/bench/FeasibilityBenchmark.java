@@ -0,0 +1,81 @@
+package puzzles.bench;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Solver;
+import puzzles.water.WaterConfig;
+import puzzles.water.WaterContext;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.function.Consumer;
+
+/**
+ * Shows what the water feasibility check saves on puzzles that can't be solved. Each puzzle is solved once as it is,
+ * where the search gives up before it starts, and once wrapped so the check is hidden, where the search has to visit
+ * every reachable configuration before it can report that there is no solution.
+ * Run it from the project directory, e.g. java -Xmx2g -cp ... puzzles.bench.FeasibilityBenchmark
+ * @author Alex Lee
+ * */
+public class FeasibilityBenchmark {
+    /**
+     * Runs every unsolvable puzzle with and without the check and prints a table of the results
+     * @param args: not used
+     * */
+    public static void main(String[] args) {
+        System.out.printf("%-34s %-10s %12s %10s%n", "puzzle", "check", "unique", "time");
+        int[][] puzzles = {
+                {4, 6, 9},
+                {1, 26, 38, 54, 70},   // every capacity is even
+                {1, 46, 78, 106, 130},
+                {100, 17, 29, 41, 53}  // more than the largest bucket
+        };
+        for (int[] puzzle: puzzles){
+            int[] capacities = new int[puzzle.length - 1];
+            System.arraycopy(puzzle, 1, capacities, 0, capacities.length);
+            WaterContext context = new WaterContext(capacities, puzzle[0]);
+            String name = "water " + puzzle[0] + " " + Arrays.toString(capacities);
+            measure(name, "on", new WaterConfig(context));
+            measure(name, "off", new Unchecked(new WaterConfig(context)));
+        }
+    }
+
+    /**
+     * Solves a puzzle with BFSSearch and prints its row
+     * @param name: the name printed for the puzzle
+     * @param check: the name printed for whether the check is used
+     * @param start: the starting configuration of the puzzle
+     * */
+    private static void measure(String name, String check, Configuration start){
+        Solver solver = new Solver();
+        long begin = System.nanoTime();
+        int moves = solver.BFSSearch(start).size();
+        long millis = (System.nanoTime() - begin) / 1_000_000;
+        if (moves != 0){
+            throw new IllegalStateException(name + " was solved");
+        }
+        System.out.printf("%-34s %-10s %12d %8dms%n", name, check, solver.getUniqueConfigurations(), millis);
+    }
+
+    /**
+     * A configuration that behaves exactly like the one it wraps, except that it always claims to be solvable
+     * */
+    private record Unchecked(Configuration config) implements Configuration {
+        @Override
+        public boolean isSolution() {
+            return this.config.isSolution();
+        }
+
+        @Override
+        public Collection<Configuration> getNeighbors() {
+            Collection<Configuration> neighbors = new LinkedList<>();
+            this.forEachNeighbor(neighbors::add);
+            return neighbors;
+        }
+
+        @Override
+        public void forEachNeighbor(Consumer<Configuration> visitor) {
+            this.config.forEachNeighbor(neighbor -> visitor.accept(new Unchecked(neighbor)));
+        }
+    }
+}
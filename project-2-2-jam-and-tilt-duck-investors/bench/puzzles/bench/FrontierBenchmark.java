@@ -0,0 +1,62 @@
+package puzzles.bench;
+
+import org.openjdk.jmh.annotations.*;
+import puzzles.common.solver.ArrayFrontier;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Solver;
+import puzzles.tilt.model.TiltConfig;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a full BFS solve of every board in data/tilt using the ring buffer frontier against the original
+ * linked list frontier. Must be run from the project directory so the board files can be found.
+ * Running it with "-prof gc" shows the difference in allocation rate between the two.
+ * @author Alex Lee
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrontierBenchmark {
+    /** the board being solved */
+    @Param({"tilt-0", "tilt-1", "tilt-2", "tilt-3", "tilt-4", "tilt-5",
+            "tilt-6", "tilt-7", "tilt-8", "tilt-9", "tilt-10"})
+    public String board;
+
+    /** the frontier the solver uses (array = ring buffer, linked = LinkedList.remove(0)) */
+    @Param({"array", "linked"})
+    public String frontier;
+
+    /** the starting configuration of the board */
+    private TiltConfig start;
+    /** the solver being measured */
+    private Solver solver;
+
+    /**
+     * Loads the board and creates a solver using the frontier being measured
+     * @throws IOException: if the board file can not be read
+     * */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.start = new TiltConfig("data/tilt/" + this.board + ".txt");
+        if (this.frontier.equals("linked")){
+            this.solver = new Solver(LinkedListFrontier::new);
+        }else{
+            this.solver = new Solver(ArrayFrontier::new);
+        }
+    }
+
+    /**
+     * Solves the board from scratch
+     * @return the path found, so the JIT can not throw the search away
+     * */
+    @Benchmark
+    public List<Configuration> solve() {
+        return this.solver.BFSSearch(this.start);
+    }
+}
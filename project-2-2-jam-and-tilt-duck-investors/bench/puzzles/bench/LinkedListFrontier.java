@@ -0,0 +1,32 @@
+package puzzles.bench;
+
+import puzzles.common.solver.Frontier;
+
+import java.util.LinkedList;
+
+/**
+ * A frontier that behaves exactly like the original solver queue, a {@link LinkedList} drained with remove(0).
+ * Only kept around so the benchmarks have something to compare the default frontier against.
+ *
+ * @param <E> the type of element held in the frontier
+ * @author Alex Lee
+ * */
+public class LinkedListFrontier<E> implements Frontier<E> {
+    /** the list holding the elements of the frontier */
+    private final LinkedList<E> list = new LinkedList<>();
+
+    @Override
+    public void add(E element) {
+        this.list.add(element);
+    }
+
+    @Override
+    public E remove() {
+        return this.list.remove(0);
+    }
+
+    @Override
+    public int size() {
+        return this.list.size();
+    }
+}
@@ -0,0 +1,72 @@
+package puzzles.bench;
+
+import puzzles.common.solver.AStarSolver;
+import puzzles.common.solver.Configuration;
+import puzzles.strings.StringConfig;
+import puzzles.tilt.model.TiltConfig;
+import puzzles.water.WaterConfig;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Compares how much work BFSSearch and AStarSearch do on the same puzzles. For each puzzle, the number of expanded and
+ * unique configurations of both searches is printed along with the length of the path found, which must be the same
+ * for both since the heuristics never overestimate.
+ * Run it from the project directory, e.g. java -cp ... puzzles.bench.SearchEffortBenchmark
+ * @author Alex Lee
+ * */
+public class SearchEffortBenchmark {
+    /**
+     * Runs every puzzle with both searches and prints a table of the results
+     * @param args: not used
+     * @throws IOException: if a tilt board can not be read
+     * */
+    public static void main(String[] args) throws IOException {
+        System.out.printf("%-34s %12s %12s %12s %12s %6s%n",
+                "puzzle", "BFS expand", "A* expand", "BFS unique", "A* unique", "moves");
+
+        for (String board: new String[]{"tilt-3", "tilt-7", "tilt-8", "tilt-10"}){
+            TiltConfig start = new TiltConfig("data/tilt/" + board + ".txt");
+            compare(board, start, new AStarSolver(), solver -> solver.AStarSearch(start,
+                    TiltConfig::estimateMovesLeft));
+        }
+        for (List<Integer> puzzle: List.of(List.of(37, 5, 11, 17, 29, 41), List.of(60, 39, 269, 677, 919, 1553))){
+            WaterConfig start = new WaterConfig(puzzle.subList(1, puzzle.size()), puzzle.get(0));
+            compare("water " + puzzle, start, new AStarSolver(), solver -> solver.AStarSearch(start,
+                    WaterConfig::estimateMovesLeft));
+        }
+        for (String[] puzzle: new String[][]{{"ABC", "BZD"}, {"CAT", "DOG"}, {"MARCH", "APRIL"}}){
+            StringConfig start = new StringConfig(puzzle[0], puzzle[1]);
+            compare("strings " + puzzle[0] + " " + puzzle[1], start, new AStarSolver(),
+                    solver -> solver.AStarSearch(start, StringConfig::estimateMovesLeft));
+        }
+    }
+
+    /**
+     * Solves a puzzle with BFSSearch and then with an A* search, and prints a row comparing the two
+     * @param name: the name printed for the puzzle
+     * @param start: the starting configuration of the puzzle
+     * @param solver: the solver both searches are run on
+     * @param aStar: runs the A* search with the given solver
+     * */
+    private static void compare(String name, Configuration start, AStarSolver solver, Search aStar){
+        int moves = solver.BFSSearch(start).size() - 1;
+        int bfsExpanded = solver.getExpandedConfigurations();
+        int bfsUnique = solver.getUniqueConfigurations();
+
+        int aStarMoves = aStar.run(solver).size() - 1;
+        if (aStarMoves != moves){
+            throw new IllegalStateException(name + ": A* found " + aStarMoves + " moves instead of " + moves);
+        }
+        System.out.printf("%-34s %12d %12d %12d %12d %6d%n", name, bfsExpanded, solver.getExpandedConfigurations(),
+                bfsUnique, solver.getUniqueConfigurations(), moves);
+    }
+
+    /**
+     * Runs an A* search on a solver
+     * */
+    private interface Search {
+        List<Configuration> run(AStarSolver solver);
+    }
+}
@@ -0,0 +1,93 @@
+package puzzles.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.Solver;
+import puzzles.strings.StringConfig;
+import puzzles.tilt.model.TiltConfig;
+import puzzles.water.WaterConfig;
+import puzzles.water.WaterContext;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Solver.BFSSearch on every kind of puzzle, so a change to TiltConfig, WaterConfig or StringConfig that slows
+ * the search down shows up here. Each puzzle is timed both as throughput (solves per second) and as sampled solve
+ * times, which JMH reports as percentiles. Running it through main adds the gc profiler, which reports the allocation
+ * rate of each puzzle as well. Must be run from the project directory so the board files can be found.
+ * @author Alex Lee
+ * */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    /**
+     * the puzzle being solved, written as the kind of puzzle followed by its arguments:
+     * tilt-(board in data/tilt), gen-(board in data/tilt-corpus), water-(amount)-(capacities...),
+     * strings-(start)-(goal)
+     * */
+    @Param({"tilt-5", "tilt-8", "tilt-9", "tilt-10", "gen-10-1", "gen-12-0",
+            "water-37-5-11-17-29-41", "water-60-39-269-677-919-1553",
+            "strings-ABC-BZD", "strings-CAT-DOG"})
+    public String puzzle;
+
+    /** the starting configuration of the puzzle */
+    private Configuration start;
+    /** the solver being measured */
+    private Solver solver;
+
+    /**
+     * Creates the starting configuration of the puzzle being measured
+     * @throws IOException: if a board file can not be read
+     * */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String[] parts = this.puzzle.split("-");
+        this.start = switch (parts[0]) {
+            case "tilt" -> new TiltConfig("data/tilt/" + this.puzzle + ".txt");
+            case "gen" -> new TiltConfig("data/tilt-corpus/" + this.puzzle + ".txt");
+            case "water" -> new WaterConfig(new WaterContext(
+                    Arrays.stream(parts, 2, parts.length).mapToInt(Integer::parseInt).toArray(),
+                    Integer.parseInt(parts[1])));
+            case "strings" -> new StringConfig(parts[1], parts[2]);
+            default -> throw new IllegalArgumentException("Unknown puzzle " + this.puzzle);
+        };
+        this.solver = new Solver();
+    }
+
+    /**
+     * Solves the puzzle from scratch
+     * @return the path found, so the JIT can not throw the search away
+     * */
+    @Benchmark
+    public List<Configuration> solve() {
+        return this.solver.BFSSearch(this.start);
+    }
+
+    /**
+     * Runs the benchmark with the gc profiler, which adds the allocation rate (gc.alloc.rate.norm is the bytes
+     * allocated by each solve) to the results
+     * @param args: (optional) the puzzles to measure, all of them if none are given
+     * @throws RunnerException: if JMH fails to run the benchmark
+     * */
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(SolverBenchmark.class.getName()) // not StringSolverBenchmark
+                .addProfiler(GCProfiler.class);
+        if (args.length > 0){
+            options.param("puzzle", args);
+        }
+        new Runner(options.build()).run();
+    }
+}
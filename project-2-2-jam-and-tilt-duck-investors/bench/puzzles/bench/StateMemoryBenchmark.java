@@ -0,0 +1,109 @@
+package puzzles.bench;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.EncodableConfiguration;
+import puzzles.common.solver.Solver;
+import puzzles.strings.StringConfig;
+import puzzles.tilt.model.TiltConfig;
+import puzzles.water.WaterConfig;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Measures how much heap a search keeps alive when visited configurations are stored as objects (BFSSearch) compared
+ * to when only their encoded bytes are stored (encodedBFSSearch). The live heap is read after every garbage
+ * collection, and the largest value seen during a search (less what was live before it started) is reported along
+ * with the bytes that works out to per unique configuration.
+ * Run it from the project directory with a small young generation so collections happen during the search, e.g.
+ * java -Xmx2g -Xmn16m -cp ... puzzles.bench.StateMemoryBenchmark
+ * @author Alex Lee
+ * */
+public class StateMemoryBenchmark {
+    /** the most live heap seen after a collection since the last reset */
+    private static volatile long peakLive;
+
+    /**
+     * Runs every puzzle with both kinds of search and prints a table of the results
+     * @param args: not used
+     * @throws IOException: if a tilt board can not be read
+     * */
+    public static void main(String[] args) throws IOException {
+        watchCollections();
+        System.out.printf("%-34s %-8s %10s %12s %12s%n", "puzzle", "mode", "unique", "peak live", "bytes/state");
+
+        for (String board: new String[]{"tilt-8", "tilt-10"}){
+            String file = "data/tilt/" + board + ".txt";
+            measure(board, () -> new TiltConfig(file));
+        }
+        measure("water 1042 1086 1097 1100 2163",
+                () -> new WaterConfig(List.of(1086, 1097, 1100, 2163), 1042));
+        measure("water 60 39 269 677 919 1553",
+                () -> new WaterConfig(List.of(39, 269, 677, 919, 1553), 60));
+        measure("strings CAT DOG", () -> new StringConfig("CAT", "DOG"));
+    }
+
+    /**
+     * Solves a puzzle with both searches and prints a row for each
+     * @param name: the name printed for the puzzle
+     * @param puzzle: creates the starting configuration of the puzzle
+     * @throws IOException: if the puzzle can not be loaded
+     * */
+    private static void measure(String name, Start puzzle) throws IOException {
+        EncodableConfiguration start = puzzle.create();
+        measure(name, "object", solver -> solver.BFSSearch(start));
+        measure(name, "encoded", solver -> solver.encodedBFSSearch(start));
+    }
+
+    /**
+     * Runs a single search and prints its row
+     * @param name: the name printed for the puzzle
+     * @param mode: the name printed for the search
+     * @param search: runs the search with the given solver
+     * */
+    private static void measure(String name, String mode, Function<Solver, List<Configuration>> search){
+        Solver solver = new Solver();
+        System.gc();
+        long before = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        peakLive = 0;
+        search.apply(solver);
+        long unique = solver.getUniqueConfigurations();
+        long used = Math.max(0, peakLive - before);
+        System.out.printf("%-34s %-8s %10d %10.1fMB %12d%n",
+                name, mode, unique, used / 1e6, unique == 0 ? 0 : used / unique);
+    }
+
+    /**
+     * Listens to every garbage collector and records the live heap left after each collection
+     * */
+    private static void watchCollections(){
+        for (GarbageCollectorMXBean collector: ManagementFactory.getGarbageCollectorMXBeans()){
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)){
+                    return;
+                }
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                long live = 0;
+                for (MemoryUsage usage: info.getGcInfo().getMemoryUsageAfterGc().values()){
+                    live += usage.getUsed();
+                }
+                peakLive = Math.max(peakLive, live);
+            }, null, null);
+        }
+    }
+
+    /**
+     * Creates the starting configuration of a puzzle
+     * */
+    private interface Start {
+        EncodableConfiguration create() throws IOException;
+    }
+}
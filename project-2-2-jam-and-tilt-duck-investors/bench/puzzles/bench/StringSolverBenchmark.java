@@ -0,0 +1,61 @@
+package puzzles.bench;
+
+import org.openjdk.jmh.annotations.*;
+import puzzles.common.solver.Configuration;
+import puzzles.strings.StringConfig;
+import puzzles.strings.StringSolver;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing the strings path out directly against finding it with the generic BFS, on 4, 8 and 16 letter
+ * puzzles. The longer puzzles only need a few moves, since the BFS visits every string within that many moves of
+ * the start and anything further away takes it far too long to be worth timing.
+ * @author Alex Lee
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringSolverBenchmark {
+    /** the number of letters in the puzzle */
+    @Param({"4", "8", "16"})
+    public int letters;
+
+    /** how the path is found (direct = StringSolver.directSearch, bfs = Solver.BFSSearch) */
+    @Param({"direct", "bfs"})
+    public String solver;
+
+    /** the starting configuration of the puzzle */
+    private StringConfig start;
+    /** the solver being measured */
+    private StringSolver strings;
+
+    /**
+     * Creates the puzzle with the number of letters being measured
+     * */
+    @Setup(Level.Trial)
+    public void setup() {
+        this.start = switch (this.letters) {
+            case 4 -> new StringConfig("WORD", "ZONE");                            // 8 moves
+            case 8 -> new StringConfig("ABSTRACT", "CCRTSBDT");                    // 7 moves
+            default -> new StringConfig("BENCHMARKINGTEST", "CENCHLARKINGTFSS");   // 4 moves
+        };
+        this.strings = new StringSolver();
+    }
+
+    /**
+     * Finds the path from scratch
+     * @return the path found, so the JIT can not throw the search away
+     * */
+    @Benchmark
+    public List<Configuration> solve() {
+        if (this.solver.equals("bfs")){
+            return this.strings.BFSSearch(this.start);
+        }
+        return this.strings.directSearch(this.start);
+    }
+}
@@ -0,0 +1,81 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A solver that adds an A* search on top of the BFS based searches of {@link Solver}. Configurations are expanded in
+ * order of the moves taken to reach them plus a {@link Heuristic} estimate of the moves left, so a good estimate lets
+ * the search head almost straight for the solution instead of expanding every configuration closer to the start.
+ * The path found is as short as the one found by BFSSearch, although it may pass through different configurations.
+ * @author Alex Lee
+ * */
+public class AStarSolver extends Solver {
+    /**
+     * A configuration waiting in the open queue of an A* search
+     * @param config: the configuration
+     * @param cost: the number of moves it took to reach the configuration when it was queued
+     * */
+    private record Node(Configuration config, int cost) {}
+
+    /**
+     * Given a starting configuration, will search for and construct a path from the initial configuration to the
+     * closest goal configuration, using an A* search. The configurations waiting to be expanded sit in a bucket queue
+     * ordered by moves taken plus moves estimated, and a configuration reached again by a shorter path is queued
+     * again, so the path stays the shortest one as long as the heuristic never overestimates.
+     * (If the size of the path is 0, no path exist)
+     * (Will also cause the totalConfigurations and the uniqueConfigurations to reset)
+     * @param start: the starting configuration
+     * @param heuristic: estimates the moves left from a configuration (every neighbor of a C must also be a C)
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    @SuppressWarnings("unchecked")
+    public <C extends Configuration> List<Configuration> AStarSearch(C start, Heuristic<? super C> heuristic){
+        this.totalConfigurations = 1;
+        this.uniqueConfigurations = 1; // takes into account the starting configuration
+        this.expandedConfigurations = 0;
+        if (!start.isSolvable()){ // no need to search for a solution that can't exist
+            return new ArrayList<>();
+        }
+
+        BucketQueue<Node> open = new BucketQueue<>();
+        HashMap<Configuration, Configuration> predecessors = new HashMap<>();
+        HashMap<Configuration, Integer> costs = new HashMap<>();
+        Configuration end = null;
+
+        predecessors.put(start, start);
+        costs.put(start, 0);
+        open.add(new Node(start, 0), heuristic.estimate(start));
+
+        while (!open.isEmpty()){
+            Node node = open.remove();
+            if (node.cost() > costs.get(node.config())){ // a shorter path to it was found after it was queued
+                continue;
+            }
+
+            if (node.config().isSolution()){
+                end = node.config();
+                break;
+            }
+
+            checkCancelled();
+            this.expandedConfigurations++;
+            int cost = node.cost() + 1;
+            node.config().forEachNeighbor(con -> {
+                this.totalConfigurations++;
+                Integer known = costs.get(con);
+                if (known == null || cost < known){
+                    if (known == null){
+                        this.uniqueConfigurations++;
+                    }
+                    costs.put(con, cost);
+                    predecessors.put(con, node.config());
+                    open.add(new Node(con, cost), cost + heuristic.estimate((C) con));
+                }
+            });
+        }
+
+        return this.constructPath(predecessors, start, end);
+    }
+}
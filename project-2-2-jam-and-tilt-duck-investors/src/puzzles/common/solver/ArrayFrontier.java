@@ -0,0 +1,93 @@
+package puzzles.common.solver;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A FIFO frontier backed by a growable ring buffer. Unlike a linked list, adding an element does not allocate a node
+ * and removing one is a single array read, so the only garbage created is the occasional doubling of the buffer.
+ * This is the default frontier used by the {@link Solver}.
+ *
+ * @param <E> the type of element held in the frontier
+ * @author Alex Lee
+ * */
+public class ArrayFrontier<E> implements Frontier<E> {
+    /** the capacity a frontier starts with when none is given */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** the ring buffer holding the elements (its length is always a power of two) */
+    private Object[] elements;
+    /** the index of the element at the front of the frontier */
+    private int head;
+    /** the number of elements currently in the frontier */
+    private int size;
+
+    /** Creates an empty frontier with the default capacity */
+    public ArrayFrontier(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty frontier that can hold a given number of elements before it needs to grow
+     * @param capacity: the initial capacity of the frontier (rounded up to the next power of two)
+     * */
+    public ArrayFrontier(int capacity){
+        int length = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.elements = new Object[length];
+    }
+
+    /**
+     * Adds an element to the back of the frontier, doubling the buffer if it is full
+     * @param element: the element to be added (may be null)
+     * */
+    @Override
+    public void add(E element) {
+        if (this.size == this.elements.length){
+            this.grow();
+        }
+        this.elements[(this.head + this.size) & (this.elements.length - 1)] = element;
+        this.size++;
+    }
+
+    /**
+     * Removes the element at the front of the frontier. The slot is cleared so the buffer does not keep expanded
+     * configurations alive.
+     * @return the oldest element in the frontier
+     * */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove() {
+        if (this.size == 0){
+            throw new NoSuchElementException("The frontier is empty");
+        }
+        E element = (E) this.elements[this.head];
+        this.elements[this.head] = null;
+        this.head = (this.head + 1) & (this.elements.length - 1);
+        this.size--;
+        return element;
+    }
+
+    /**
+     * Gets the number of elements currently waiting in the frontier
+     * @return the size of the frontier
+     * */
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Doubles the length of the ring buffer, unwrapping the elements so the front of the frontier is at index 0
+     * */
+    private void grow(){
+        int length = this.elements.length;
+        if (length == 1 << 30){
+            throw new IllegalStateException("The frontier can not grow any larger");
+        }
+        Object[] grown = new Object[length << 1];
+        int front = length - this.head; // the elements between the head and the end of the buffer
+        System.arraycopy(this.elements, this.head, grown, 0, front);
+        System.arraycopy(this.elements, 0, grown, front, this.head);
+        this.elements = grown;
+        this.head = 0;
+    }
+}
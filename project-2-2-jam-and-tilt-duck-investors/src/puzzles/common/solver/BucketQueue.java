@@ -0,0 +1,61 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+/**
+ * A priority queue for small, non-negative integer priorities, with one bucket of elements for each priority. Adding
+ * an element is a single append, and removing one only scans forward past buckets that have been emptied, which
+ * suits searches where the priorities being removed almost never go down. Among elements of the same priority, the
+ * last one added is removed first.
+ *
+ * @param <E> the type of element held in the queue
+ * @author Alex Lee
+ * */
+class BucketQueue<E> {
+    /** the elements waiting in the queue, grouped by their priority (the index of the bucket) */
+    private final ArrayList<ArrayList<E>> buckets = new ArrayList<>();
+    /** every bucket below this priority is empty */
+    private int lowest;
+    /** the number of elements currently in the queue */
+    private int size;
+
+    /**
+     * Adds an element to the queue
+     * @param element: the element to be added
+     * @param priority: the priority of the element, where lower priorities are removed first (must not be negative)
+     * */
+    void add(E element, int priority){
+        while (this.buckets.size() <= priority){
+            this.buckets.add(new ArrayList<>());
+        }
+        this.buckets.get(priority).add(element);
+        this.lowest = Math.min(this.lowest, priority);
+        this.size++;
+    }
+
+    /**
+     * Removes an element with the lowest priority in the queue
+     * @return the element with the lowest priority that was added last
+     * @throws NoSuchElementException: if the queue is empty
+     * */
+    E remove(){
+        if (this.size == 0){
+            throw new NoSuchElementException("The queue is empty");
+        }
+        while (this.buckets.get(this.lowest).isEmpty()){
+            this.lowest++;
+        }
+        ArrayList<E> bucket = this.buckets.get(this.lowest);
+        this.size--;
+        return bucket.remove(bucket.size() - 1);
+    }
+
+    /**
+     * Checks if there are no more elements left in the queue
+     * @return true if the queue is empty, false otherwise
+     * */
+    boolean isEmpty(){
+        return this.size == 0;
+    }
+}
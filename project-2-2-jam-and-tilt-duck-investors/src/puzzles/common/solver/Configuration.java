@@ -1,6 +1,7 @@
 package puzzles.common.solver;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 /**
  * The representation of a single configuration for a puzzle.
@@ -20,6 +21,41 @@ public interface Configuration {
      */
     Collection<Configuration> getNeighbors();
 
+    /**
+     * Hands every neighbor of the current configuration to a visitor, one at a time, without collecting them first.
+     * Neighbors that getNeighbors would give as null are skipped. Puzzles should override this so that expanding a
+     * configuration doesn't build a collection that is thrown away right after.
+     * @param visitor: called once with each neighbor
+     */
+    default void forEachNeighbor(Consumer<Configuration> visitor) {
+        for (Configuration neighbor : this.getNeighbors()) {
+            if (neighbor != null) {
+                visitor.accept(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Appends the string representation of this configuration to a builder, so a path can be written out step by
+     * step without a new String for every configuration. Must append exactly what toString returns; puzzles with a
+     * larger representation should override this and have toString call it.
+     * @param out: the builder being appended to
+     * */
+    default void render(StringBuilder out) {
+        out.append(this);
+    }
+
+    /**
+     * A quick check of whether the puzzle can be solved at all from this configuration, done before any searching.
+     * Every search of the Solver gives up right away, with no path, when the start says it can't be solved, instead
+     * of exhausting every reachable configuration first. Puzzles with a cheap test for being unsolvable should
+     * override this; it must never return false for a configuration that can reach a solution.
+     * @return false if no solution can be reached, true if one might be
+     */
+    default boolean isSolvable() {
+        return true;
+    }
+
     //////////////////////////////////////////////////////////////////////////////////////
     // The predecessor map from the BFS Solver forces to any puzzle configuration       //
     // to override the equals and hashCode methods.                                     //
@@ -0,0 +1,203 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The number of moves every configuration reachable from a start needs to reach its closest solution. The table is
+ * built once by a BFS over every configuration reachable from the start, which records the moves between them, and
+ * then a second BFS backward over those moves from every solution. The configurations are kept encoded in an
+ * {@link EncodedStateTable}, with one int of distance each, so looking up a configuration afterwards costs an encode
+ * and a hash probe instead of a search.
+ * @author Alex Lee
+ * */
+public class DistanceTable {
+    /** the distance of a configuration that can be reached from the start but can never reach a solution */
+    public static final int NO_SOLUTION = -1;
+    /** the distance of a configuration that is not in the table (it can't be reached from the start) */
+    public static final int UNKNOWN = -2;
+
+    /** every configuration reachable from the start, in the order the BFS found them */
+    private final EncodedStateTable configs;
+    /** the moves left of each configuration by index, or NO_SOLUTION */
+    private final int[] distances;
+    /** the buffer configurations are encoded into to be looked up, one for each thread looking them up */
+    private final ThreadLocal<byte[]> scratch;
+
+    /**
+     * Creates the table around configurations whose distances are already worked out
+     * @param configs: every configuration reachable from the start
+     * @param distances: the moves left of each configuration by index
+     * */
+    private DistanceTable(EncodedStateTable configs, int[] distances){
+        this.configs = configs;
+        this.distances = distances;
+        this.scratch = ThreadLocal.withInitial(() -> new byte[configs.getWidth()]);
+    }
+
+    /**
+     * Works out the distance to the closest solution of every configuration that can be reached from a start.
+     * Solutions are not expanded, since the puzzle is over once one is reached.
+     * @param start: the configuration the table is built from
+     * @param maxConfigs: the most configurations the table may hold before giving up
+     * @return the table, or null if more than maxConfigs configurations can be reached
+     * @throws java.util.concurrent.CancellationException: if the thread building the table is interrupted
+     * */
+    public static DistanceTable build(EncodableConfiguration start, int maxConfigs){
+        return new Builder(start).build(maxConfigs);
+    }
+
+    /**
+     * Runs the forward BFS of a build, recording the moves out of each configuration as it goes. The builder is also
+     * the visitor the configuration being expanded hands its neighbors to.
+     * */
+    private static class Builder implements Consumer<Configuration> {
+        /** the configuration the table is built from */
+        private final EncodableConfiguration start;
+        /** every configuration reachable from the start found so far */
+        private final EncodedStateTable configs;
+        /** the buffer configurations are encoded into and decoded from */
+        private final byte[] buffer;
+        /** the configuration each move leads to, grouped by the configuration it leaves */
+        private int[] moves;
+        /** the number of moves recorded */
+        private int moveCount;
+        /** the index of the configuration being expanded */
+        private int index;
+
+        /**
+         * Creates a builder holding only the start
+         * @param start: the configuration the table is built from
+         * */
+        private Builder(EncodableConfiguration start){
+            this.start = start;
+            this.configs = new EncodedStateTable(start.getEncodedSize());
+            this.buffer = new byte[this.configs.getWidth()];
+            this.moves = new int[4096];
+            start.encode(this.buffer, 0);
+            this.configs.add(this.buffer, 0, 0);
+        }
+
+        /**
+         * Expands every reachable configuration, then works out the distances
+         * @param maxConfigs: the most configurations the table may hold before giving up
+         * @return the table, or null if more than maxConfigs configurations can be reached
+         * */
+        private DistanceTable build(int maxConfigs){
+            boolean[] solved = new boolean[1024];
+            int[] firstMove = new int[1025]; // the moves out of configuration i are moves[firstMove[i]..firstMove[i+1])
+
+            // everything after the index is still waiting to be expanded
+            for (this.index=0; this.index<this.configs.size(); this.index++){
+                if (this.configs.size() > maxConfigs){
+                    return null;
+                }
+                Solver.checkCancelled();
+                if (this.index == solved.length){
+                    solved = Arrays.copyOf(solved, this.index * 2);
+                    firstMove = Arrays.copyOf(firstMove, this.index * 2 + 1);
+                }
+                firstMove[this.index] = this.moveCount;
+
+                this.configs.getKey(this.index, this.buffer, 0);
+                EncodableConfiguration config = this.start.decode(this.buffer, 0);
+                if (config.isSolution()){
+                    solved[this.index] = true;
+                    continue;
+                }
+                config.forEachNeighbor(this);
+            }
+
+            int size = this.configs.size();
+            firstMove = Arrays.copyOf(firstMove, size + 1);
+            firstMove[size] = this.moveCount;
+            return new DistanceTable(this.configs,
+                    backwardDistances(size, Arrays.copyOf(solved, size), firstMove, this.moves));
+        }
+
+        /**
+         * Records the move from the configuration being expanded to one of its neighbors, adding the neighbor to the
+         * configurations found if it is new
+         * @param con: the neighbor
+         * */
+        @Override
+        public void accept(Configuration con) {
+            ((EncodableConfiguration) con).encode(this.buffer, 0);
+            int target = this.configs.add(this.buffer, 0, this.index) ? this.configs.size() - 1 :
+                    this.configs.indexOf(this.buffer, 0);
+            if (this.moveCount == this.moves.length){
+                this.moves = Arrays.copyOf(this.moves, this.moveCount * 2);
+            }
+            this.moves[this.moveCount++] = target;
+        }
+    }
+
+    /**
+     * Runs the backward BFS, from every solution along the moves turned around
+     * @param size: the number of configurations
+     * @param solved: whether each configuration is a solution
+     * @param firstMove: where the moves out of each configuration start in moves (with the total at the end)
+     * @param moves: the configuration each move leads to
+     * @return the moves left of each configuration, or NO_SOLUTION
+     * */
+    private static int[] backwardDistances(int size, boolean[] solved, int[] firstMove, int[] moves){
+        int moveCount = firstMove[size];
+        int[] firstReverse = new int[size + 1]; // the same layout as firstMove, for the moves into each configuration
+        for (int i=0; i<moveCount; i++){
+            firstReverse[moves[i] + 1]++;
+        }
+        for (int i=0; i<size; i++){
+            firstReverse[i + 1] += firstReverse[i];
+        }
+        int[] reverse = new int[moveCount];
+        int[] filled = Arrays.copyOf(firstReverse, size);
+        for (int from=0; from<size; from++){
+            for (int i=firstMove[from]; i<firstMove[from + 1]; i++){
+                reverse[filled[moves[i]]++] = from;
+            }
+        }
+
+        int[] distances = new int[size];
+        Arrays.fill(distances, NO_SOLUTION);
+        int[] queue = new int[size];
+        int tail = 0;
+        for (int i=0; i<size; i++){
+            if (solved[i]){
+                distances[i] = 0;
+                queue[tail++] = i;
+            }
+        }
+        for (int head=0; head<tail; head++){
+            int to = queue[head];
+            for (int i=firstReverse[to]; i<firstReverse[to + 1]; i++){
+                int from = reverse[i];
+                if (distances[from] == NO_SOLUTION){
+                    distances[from] = distances[to] + 1;
+                    queue[tail++] = from;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Gets the number of configurations in the table
+     * @return the size of the table
+     * */
+    public int size() {
+        return this.configs.size();
+    }
+
+    /**
+     * Gets the fewest moves a configuration needs to reach a solution. Each thread encodes into a buffer of its own,
+     * so lookups never allocate and never wait on each other.
+     * @param config: a configuration of the same puzzle the table was built from
+     * @return the moves left (0 for a solution), NO_SOLUTION if it can't reach one, or UNKNOWN if it is not in the table
+     * */
+    public int distanceOf(EncodableConfiguration config) {
+        byte[] buffer = this.scratch.get();
+        config.encode(buffer, 0);
+        int index = this.configs.indexOf(buffer, 0);
+        return index == -1 ? UNKNOWN : this.distances[index];
+    }
+}
@@ -0,0 +1,64 @@
+package puzzles.common.solver;
+
+/**
+ * A configuration that can pack itself into a fixed number of bytes and be rebuilt from them. Every configuration
+ * reachable from the same start must use the same number of bytes. Puzzles that implement this can be solved with
+ * {@link Solver#encodedBFSSearch}, which only keeps the encoded bytes of the configurations it has visited.
+ * Anything that never changes between configurations of a puzzle (such as the goal) does not need to be encoded,
+ * since it can be copied from the configuration doing the decoding.
+ */
+public interface EncodableConfiguration extends Configuration {
+    /**
+     * Gets the number of bytes every configuration of this puzzle is encoded into
+     * @return the width of an encoded configuration
+     */
+    int getEncodedSize();
+
+    /**
+     * Writes this configuration into an array as exactly getEncodedSize() bytes
+     * @param dest: the array being written into
+     * @param offset: the index of the first byte to write
+     */
+    void encode(byte[] dest, int offset);
+
+    /**
+     * Rebuilds a configuration of the same puzzle from its encoded bytes
+     * @param src: the array holding the encoded configuration
+     * @param offset: the index of its first byte
+     * @return the decoded configuration
+     */
+    EncodableConfiguration decode(byte[] src, int offset);
+
+    /**
+     * Encodes this configuration into a single long. Only possible if the configuration is at most 8 bytes wide.
+     * Puzzles are encouraged to override this (along with decode(long)) to skip the byte array.
+     * @return the encoded configuration
+     */
+    default long encode() {
+        int size = this.getEncodedSize();
+        if (size > Long.BYTES){
+            throw new UnsupportedOperationException("A configuration of " + size + " bytes does not fit in a long");
+        }
+        byte[] bytes = new byte[size];
+        this.encode(bytes, 0);
+        long code = 0;
+        for (byte b: bytes){
+            code = (code << 8) | (b & 0xFF);
+        }
+        return code;
+    }
+
+    /**
+     * Rebuilds a configuration of the same puzzle from the long returned by encode()
+     * @param code: the encoded configuration
+     * @return the decoded configuration
+     */
+    default EncodableConfiguration decode(long code) {
+        byte[] bytes = new byte[this.getEncodedSize()];
+        for (int i=bytes.length - 1; i>=0; i--){
+            bytes[i] = (byte) code;
+            code >>>= 8;
+        }
+        return this.decode(bytes, 0);
+    }
+}
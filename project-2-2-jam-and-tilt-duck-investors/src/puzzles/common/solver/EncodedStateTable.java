@@ -0,0 +1,171 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table of encoded configurations that are all the same number of bytes wide. Every
+ * configuration added is given the next index (0, 1, 2, ...), and its bytes, hash and the index of the configuration
+ * it was reached from are kept in flat primitive arrays under that index. No objects are created per configuration.
+ * @author Alex Lee
+ * */
+public class EncodedStateTable {
+    /** the number of configurations the table starts with room for */
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /** the number of bytes in every encoded configuration */
+    private final int width;
+    /** the encoded configurations, one after another in index order */
+    private byte[] keys;
+    /** the hash of each configuration */
+    private int[] hashes;
+    /** the index of the configuration each configuration was reached from */
+    private int[] parents;
+    /** the hash slots, each holding (index + 1) of a configuration or 0 if empty */
+    private int[] slots;
+    /** the number of configurations in the table */
+    private int size;
+
+    /**
+     * Creates an empty table
+     * @param width: the number of bytes in every encoded configuration
+     * */
+    public EncodedStateTable(int width){
+        this.width = width;
+        this.keys = new byte[DEFAULT_CAPACITY * width];
+        this.hashes = new int[DEFAULT_CAPACITY];
+        this.parents = new int[DEFAULT_CAPACITY];
+        this.slots = new int[DEFAULT_CAPACITY * 2];
+    }
+
+    /**
+     * Gets the number of configurations in the table
+     * @return the size of the table
+     * */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the number of bytes in every encoded configuration
+     * @return the width of a configuration
+     * */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Gets the index of the configuration a configuration was reached from
+     * @param index: the index of the configuration
+     * @return the index of its parent (the first configuration added is its own parent)
+     * */
+    public int getParent(int index) {
+        return this.parents[index];
+    }
+
+    /**
+     * Copies the bytes of a configuration out of the table
+     * @param index: the index of the configuration
+     * @param dest: the array to copy into
+     * @param offset: where in the array to put the first byte
+     * */
+    public void getKey(int index, byte[] dest, int offset) {
+        System.arraycopy(this.keys, index * this.width, dest, offset, this.width);
+    }
+
+    /**
+     * Looks up the index of a configuration
+     * @param key: the array holding the encoded configuration
+     * @param offset: the index of its first byte
+     * @return the index of the configuration, or -1 if it is not in the table
+     * */
+    public int indexOf(byte[] key, int offset) {
+        int hash = hash(key, offset, this.width);
+        int mask = this.slots.length - 1;
+        for (int slot = hash & mask; this.slots[slot] != 0; slot = (slot + 1) & mask){
+            int index = this.slots[slot] - 1;
+            if (this.hashes[index] == hash && this.matches(index, key, offset)){
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a configuration to the table if it is not already in it
+     * @param key: the array holding the encoded configuration
+     * @param offset: the index of its first byte
+     * @param parent: the index of the configuration it was reached from (ignored for the first configuration)
+     * @return true if the configuration was added, false if it was already in the table
+     * */
+    public boolean add(byte[] key, int offset, int parent) {
+        int hash = hash(key, offset, this.width);
+        int mask = this.slots.length - 1;
+        int slot = hash & mask;
+        while (this.slots[slot] != 0){
+            int index = this.slots[slot] - 1;
+            if (this.hashes[index] == hash && this.matches(index, key, offset)){
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (this.size == this.parents.length){
+            this.grow();
+            return this.add(key, offset, parent); // the slots were rebuilt, so probe again
+        }
+        int index = this.size++;
+        System.arraycopy(key, offset, this.keys, index * this.width, this.width);
+        this.hashes[index] = hash;
+        this.parents[index] = index == 0 ? 0 : parent;
+        this.slots[slot] = index + 1;
+        return true;
+    }
+
+    /**
+     * Checks if the configuration stored under an index has the given bytes
+     * @param index: the index of the stored configuration
+     * @param key: the array holding the encoded configuration
+     * @param offset: the index of its first byte
+     * @return true if the bytes are the same, false otherwise
+     * */
+    private boolean matches(int index, byte[] key, int offset){
+        int start = index * this.width;
+        return Arrays.equals(this.keys, start, start + this.width, key, offset, offset + this.width);
+    }
+
+    /**
+     * Doubles the room in the table and rebuilds the hash slots (the slots are kept at most half full)
+     * */
+    private void grow(){
+        int capacity = this.parents.length << 1;
+        this.keys = Arrays.copyOf(this.keys, capacity * this.width);
+        this.hashes = Arrays.copyOf(this.hashes, capacity);
+        this.parents = Arrays.copyOf(this.parents, capacity);
+        this.slots = new int[capacity * 2];
+
+        int mask = this.slots.length - 1;
+        for (int index=0; index<this.size; index++){
+            int slot = this.hashes[index] & mask;
+            while (this.slots[slot] != 0){
+                slot = (slot + 1) & mask;
+            }
+            this.slots[slot] = index + 1;
+        }
+    }
+
+    /**
+     * Hashes a run of bytes, spreading the bits so that linear probing stays short
+     * @param key: the array holding the bytes
+     * @param offset: the index of the first byte
+     * @param width: the number of bytes to hash
+     * @return the hash of the bytes
+     * */
+    private static int hash(byte[] key, int offset, int width){
+        int hash = 1;
+        for (int i=offset; i<offset + width; i++){
+            hash = 31 * hash + key[i];
+        }
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,37 @@
+package puzzles.common.solver;
+
+/**
+ * The collection of configurations that a search has discovered but not yet expanded. The solver only ever adds to the
+ * back and removes from the front of a frontier, so any FIFO structure can be plugged into it.
+ *
+ * @param <E> the type of element held in the frontier
+ * @author Alex Lee
+ * */
+public interface Frontier<E> {
+    /**
+     * Adds an element to the back of the frontier
+     * @param element: the element to be added (may be null)
+     * */
+    void add(E element);
+
+    /**
+     * Removes the element at the front of the frontier
+     * @return the oldest element in the frontier
+     * @throws java.util.NoSuchElementException: if the frontier is empty
+     * */
+    E remove();
+
+    /**
+     * Gets the number of elements currently waiting in the frontier
+     * @return the size of the frontier
+     * */
+    int size();
+
+    /**
+     * Checks if there are no more elements left in the frontier
+     * @return true if the frontier is empty, false otherwise
+     * */
+    default boolean isEmpty() {
+        return this.size() == 0;
+    }
+}
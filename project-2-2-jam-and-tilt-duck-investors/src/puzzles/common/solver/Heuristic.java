@@ -0,0 +1,19 @@
+package puzzles.common.solver;
+
+/**
+ * Estimates how many moves a configuration is from the closest solution, which lets the {@link AStarSolver} expand
+ * the configurations that look closest to a solution first. For the path found to still be the shortest one, the
+ * estimate must never be more than the real number of moves (it must be admissible), and it must be 0 for a solution.
+ *
+ * @param <C> the type of configuration being estimated
+ * @author Alex Lee
+ * */
+@FunctionalInterface
+public interface Heuristic<C extends Configuration> {
+    /**
+     * Estimates the number of moves left before a configuration is solved
+     * @param config: the configuration to estimate
+     * @return a lower bound on the number of moves between the configuration and the closest solution
+     * */
+    int estimate(C config);
+}
@@ -0,0 +1,208 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A solver that adds depth-first iterative deepening searches on top of the BFS based searches of {@link Solver}.
+ * Instead of remembering every configuration it has visited, each round runs a depth-first search that gives up on a
+ * branch once it passes a cost bound, and the bound is raised until a solution is found. Only the current path is kept
+ * between rounds, so the memory used grows with the length of the solution instead of the size of the puzzle, in
+ * exchange for expanding configurations again in every round.
+ * An optional transposition table remembers a bounded number of recently expanded configurations, so a configuration
+ * reached again in the same round by a path that is no shorter is not expanded twice.
+ * @author Alex Lee
+ * */
+public class IterativeDeepeningSolver extends Solver {
+    /** returned by a round of the search once it has found a solution */
+    private static final int FOUND = -1;
+
+    /** the most configurations the transposition table holds (0 if there is no table) */
+    private final int tableCapacity;
+
+    /**
+     * Creates a solver that doesn't use a transposition table, so it only ever remembers the current path
+     * */
+    public IterativeDeepeningSolver(){
+        this(0);
+    }
+
+    /**
+     * Creates a solver that uses a transposition table of a given size
+     * @param tableCapacity: the most configurations the table holds before evicting the least recently used one
+     *                     (0 to not use a table)
+     * */
+    public IterativeDeepeningSolver(int tableCapacity){
+        if (tableCapacity < 0){
+            throw new IllegalArgumentException("The table capacity can not be negative");
+        }
+        this.tableCapacity = tableCapacity;
+    }
+
+    /**
+     * Given a starting configuration, will search for and construct a path from the initial configuration to the
+     * closest goal configuration, using an iterative deepening depth-first search. Each round searches one move deeper
+     * than the last, so the first solution found is one of the closest.
+     * (If the size of the path is 0, no path exist)
+     * (Will also cause the totalConfigurations and the uniqueConfigurations to reset. Without a set of every visited
+     * configuration, unique counts the configurations that were not recognised as repeats, across every round)
+     * @param start: the starting configuration
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    public List<Configuration> IDDFSSearch(Configuration start){
+        return this.IDAStarSearch(start, config -> 0);
+    }
+
+    /**
+     * Given a starting configuration, will search for and construct a path from the initial configuration to the
+     * closest goal configuration, using an IDA* search. Each round gives up on a branch once the moves taken plus the
+     * moves estimated pass the bound, and the next round raises the bound to the smallest value that was passed, so
+     * the path stays the shortest one as long as the heuristic never overestimates.
+     * (If the size of the path is 0, no path exist)
+     * (Will also cause the totalConfigurations and the uniqueConfigurations to reset. Without a set of every visited
+     * configuration, unique counts the configurations that were not recognised as repeats, across every round)
+     * @param start: the starting configuration
+     * @param heuristic: estimates the moves left from a configuration (every neighbor of a C must also be a C)
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    public <C extends Configuration> List<Configuration> IDAStarSearch(C start, Heuristic<? super C> heuristic){
+        this.totalConfigurations = 1;
+        this.uniqueConfigurations = 1; // takes into account the starting configuration
+        this.expandedConfigurations = 0;
+        if (!start.isSolvable()){ // no need to search for a solution that can't exist
+            return new ArrayList<>();
+        }
+
+        SearchState state = new SearchState(this.tableCapacity);
+        state.path.add(start);
+        state.onPath.add(start);
+
+        int bound = heuristic.estimate(start);
+        while (true){
+            if (state.table != null){
+                state.table.clear(); // the bound changed, so nothing expanded last round was fully searched
+            }
+            int next = this.search(state, 0, bound, heuristic);
+            if (next == FOUND){
+                return new ArrayList<>(state.path);
+            }
+            if (next == Integer.MAX_VALUE){ // nothing was left out of the round, so there is no solution
+                return new ArrayList<>();
+            }
+            bound = next;
+        }
+    }
+
+    /**
+     * Searches depth-first from the configuration at the end of the current path, without going past the bound.
+     * Configurations already on the path are skipped, since coming back to one can never be part of a shortest path.
+     * @param state: the path and buffers of the search
+     * @param cost: the number of moves taken to reach the configuration
+     * @param bound: the largest moves taken plus moves estimated that is searched this round
+     * @param heuristic: estimates the moves left from a configuration
+     * @return FOUND if a solution was found (left at the end of the path), otherwise the smallest moves taken plus
+     *         moves estimated that went past the bound (Integer.MAX_VALUE if nothing did)
+     * */
+    @SuppressWarnings("unchecked")
+    private <C extends Configuration> int search(SearchState state, int cost, int bound,
+                                                 Heuristic<? super C> heuristic){
+        C config = (C) state.path.get(state.path.size() - 1);
+        int estimate = cost + heuristic.estimate(config);
+        if (estimate > bound){
+            return estimate;
+        }
+        if (config.isSolution()){
+            return FOUND;
+        }
+        if (state.table != null){
+            Integer seen = state.table.get(config);
+            if (seen != null && seen <= cost){ // already searched this round with at least as many moves left
+                return Integer.MAX_VALUE;
+            }
+            state.table.put(config, cost);
+        }
+
+        checkCancelled();
+        this.expandedConfigurations++;
+        if (state.neighbors.size() == cost){
+            state.neighbors.add(new ArrayList<>());
+        }
+        List<Configuration> neighbors = state.neighbors.get(cost); // reused by every configuration at this depth
+        neighbors.clear();
+        config.forEachNeighbor(neighbors::add);
+
+        int next = Integer.MAX_VALUE;
+        for (Configuration con: neighbors){
+            this.totalConfigurations++;
+            if (!state.onPath.add(con)){
+                continue;
+            }
+            this.uniqueConfigurations++;
+            state.path.add(con);
+            int result = this.search(state, cost + 1, bound, heuristic);
+            if (result == FOUND){
+                return FOUND;
+            }
+            state.path.remove(state.path.size() - 1);
+            state.onPath.remove(con);
+            next = Math.min(next, result);
+        }
+        return next;
+    }
+
+    /**
+     * The path and buffers of an iterative deepening search, kept from one round to the next
+     * */
+    private static class SearchState {
+        /** the configurations from the start to the one being searched */
+        private final ArrayList<Configuration> path = new ArrayList<>();
+        /** the same configurations as the path, for checking if a configuration is on it */
+        private final HashSet<Configuration> onPath = new HashSet<>();
+        /** a list for the neighbors of the configuration being searched at each depth */
+        private final ArrayList<List<Configuration>> neighbors = new ArrayList<>();
+        /** the fewest moves each recently expanded configuration was reached with this round (null if not used) */
+        private final Map<Configuration, Integer> table;
+
+        /**
+         * Creates the state of a search
+         * @param tableCapacity: the most configurations the transposition table holds (0 for no table)
+         * */
+        private SearchState(int tableCapacity){
+            this.table = tableCapacity == 0 ? null : new TranspositionTable(tableCapacity);
+        }
+    }
+
+    /**
+     * A map from configurations to the fewest moves they were reached with, which evicts the least recently used
+     * configuration once it holds more than its capacity
+     * */
+    private static class TranspositionTable extends LinkedHashMap<Configuration, Integer> {
+        /** the version of the table (LinkedHashMap is serializable, though tables are never serialized) */
+        private static final long serialVersionUID = 1L;
+
+        /** the most configurations the table holds */
+        private final int capacity;
+
+        /**
+         * Creates an empty table
+         * @param capacity: the most configurations the table holds
+         * */
+        private TranspositionTable(int capacity){
+            super(16, 0.75f, true); // ordered from least to most recently used
+            this.capacity = capacity;
+        }
+
+        /**
+         * Evicts the least recently used configuration once the table is over capacity
+         * @param eldest: the least recently used entry
+         * @return true if the eldest entry should be removed
+         * */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Configuration, Integer> eldest) {
+            return this.size() > this.capacity;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package puzzles.common.solver;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A FIFO frontier of encoded configurations backed by a growable ring buffer of primitive longs, so nothing is boxed
+ * on the way in or out.
+ * @author Alex Lee
+ * */
+public class LongFrontier {
+    /** the capacity a frontier starts with */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** the ring buffer holding the elements (its length is always a power of two) */
+    private long[] elements = new long[DEFAULT_CAPACITY];
+    /** the index of the element at the front of the frontier */
+    private int head;
+    /** the number of elements currently in the frontier */
+    private int size;
+
+    /**
+     * Adds an element to the back of the frontier, doubling the buffer if it is full
+     * @param element: the element to be added
+     * */
+    public void add(long element) {
+        if (this.size == this.elements.length){
+            long[] grown = new long[this.elements.length << 1];
+            int front = this.elements.length - this.head; // the elements between the head and the end of the buffer
+            System.arraycopy(this.elements, this.head, grown, 0, front);
+            System.arraycopy(this.elements, 0, grown, front, this.head);
+            this.elements = grown;
+            this.head = 0;
+        }
+        this.elements[(this.head + this.size) & (this.elements.length - 1)] = element;
+        this.size++;
+    }
+
+    /**
+     * Removes the element at the front of the frontier
+     * @return the oldest element in the frontier
+     * */
+    public long remove() {
+        if (this.size == 0){
+            throw new NoSuchElementException("The frontier is empty");
+        }
+        long element = this.elements[this.head];
+        this.head = (this.head + 1) & (this.elements.length - 1);
+        this.size--;
+        return element;
+    }
+
+    /**
+     * Gets the number of elements currently waiting in the frontier
+     * @return the size of the frontier
+     * */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks if there are no more elements left in the frontier
+     * @return true if the frontier is empty, false otherwise
+     * */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+}
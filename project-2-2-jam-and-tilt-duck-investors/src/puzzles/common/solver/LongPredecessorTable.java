@@ -0,0 +1,153 @@
+package puzzles.common.solver;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An open-addressing hash table mapping each encoded configuration (a long) to the encoded configuration it was
+ * reached from. Keys and predecessors are kept in two flat long arrays, so adding a configuration creates no objects
+ * and a lookup is a hash, a few array reads and a long comparison.
+ * @author Alex Lee
+ * */
+public class LongPredecessorTable {
+    /** the number of slots the table starts with (always a power of two) */
+    private static final int DEFAULT_CAPACITY = 1024;
+    /** the fraction of slots that can be used before the table grows */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /** the key in each slot (0 marks an empty slot, so the key 0 is kept separately) */
+    private long[] keys;
+    /** the predecessor of the key in each slot */
+    private long[] predecessors;
+    /** whether the key 0 is in the table */
+    private boolean hasZero;
+    /** the predecessor of the key 0 */
+    private long zeroPredecessor;
+    /** the number of keys in the table */
+    private int size;
+    /** the number of keys the table can hold before it grows */
+    private int threshold;
+
+    /** Creates an empty table */
+    public LongPredecessorTable(){
+        this.keys = new long[DEFAULT_CAPACITY];
+        this.predecessors = new long[DEFAULT_CAPACITY];
+        this.threshold = (int) (DEFAULT_CAPACITY * LOAD_FACTOR);
+    }
+
+    /**
+     * Gets the number of keys in the table
+     * @return the size of the table
+     * */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Checks if a key is in the table
+     * @param key: the encoded configuration
+     * @return true if the key is in the table, false otherwise
+     * */
+    public boolean containsKey(long key) {
+        if (key == 0){
+            return this.hasZero;
+        }
+        return this.keys[this.slotOf(key)] == key;
+    }
+
+    /**
+     * Gets the predecessor of a key
+     * @param key: the encoded configuration
+     * @return the encoded configuration it was reached from
+     * @throws NoSuchElementException: if the key is not in the table
+     * */
+    public long get(long key) {
+        if (key == 0){
+            if (!this.hasZero){
+                throw new NoSuchElementException("0 is not in the table");
+            }
+            return this.zeroPredecessor;
+        }
+        int slot = this.slotOf(key);
+        if (this.keys[slot] != key){
+            throw new NoSuchElementException(key + " is not in the table");
+        }
+        return this.predecessors[slot];
+    }
+
+    /**
+     * Adds a key and its predecessor, unless the key is already in the table
+     * @param key: the encoded configuration
+     * @param predecessor: the encoded configuration it was reached from
+     * @return true if the key was added, false if it was already in the table
+     * */
+    public boolean putIfAbsent(long key, long predecessor) {
+        if (key == 0){
+            if (this.hasZero){
+                return false;
+            }
+            this.hasZero = true;
+            this.zeroPredecessor = predecessor;
+            this.size++;
+            return true;
+        }
+
+        int slot = this.slotOf(key);
+        if (this.keys[slot] == key){
+            return false;
+        }
+        this.keys[slot] = key;
+        this.predecessors[slot] = predecessor;
+        if (++this.size > this.threshold){
+            this.grow();
+        }
+        return true;
+    }
+
+    /**
+     * Finds the slot holding a key, or the empty slot it would be put in
+     * @param key: a key other than 0
+     * @return the index of the slot
+     * */
+    private int slotOf(long key){
+        int mask = this.keys.length - 1;
+        int slot = hash(key) & mask;
+        while (this.keys[slot] != 0 && this.keys[slot] != key){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Doubles the number of slots and puts every key back into the new slots
+     * */
+    private void grow(){
+        long[] oldKeys = this.keys;
+        long[] oldPredecessors = this.predecessors;
+        if (oldKeys.length == 1 << 30){
+            throw new IllegalStateException("The table can not grow any larger");
+        }
+        this.keys = new long[oldKeys.length << 1];
+        this.predecessors = new long[oldKeys.length << 1];
+        this.threshold = (int) (this.keys.length * LOAD_FACTOR);
+
+        for (int i=0; i<oldKeys.length; i++){
+            if (oldKeys[i] != 0){
+                int slot = this.slotOf(oldKeys[i]);
+                this.keys[slot] = oldKeys[i];
+                this.predecessors[slot] = oldPredecessors[i];
+            }
+        }
+    }
+
+    /**
+     * Mixes every bit of a key into the low bits used to pick a slot
+     * @param key: the key being hashed
+     * @return the hash of the key
+     * */
+    private static int hash(long key){
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,38 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * A configuration of a puzzle whose moves can be walked backwards and whose goal configurations are known ahead of
+ * time. Puzzles that implement this can be solved with {@link Solver#bidirectionalSearch}, which searches forward from
+ * the start and backward from the goals at the same time.
+ * Every configuration returned by these methods must itself be a ReversibleConfiguration.
+ */
+public interface ReversibleConfiguration extends Configuration {
+    /**
+     * Get the collection of configurations that can reach the current configuration in a single move.
+     * @return All the predecessors
+     */
+    Collection<Configuration> getPredecessors();
+
+    /**
+     * Hands every predecessor of the current configuration to a visitor, one at a time, without collecting them
+     * first. Predecessors that getPredecessors would give as null are skipped. Puzzles should override this for the
+     * same reason as forEachNeighbor.
+     * @param visitor: called once with each predecessor
+     */
+    default void forEachPredecessor(Consumer<Configuration> visitor) {
+        for (Configuration predecessor : this.getPredecessors()) {
+            if (predecessor != null) {
+                visitor.accept(predecessor);
+            }
+        }
+    }
+
+    /**
+     * Get every configuration of this puzzle that is a solution.
+     * @return All the goal configurations
+     */
+    Collection<Configuration> getGoals();
+}
@@ -0,0 +1,23 @@
+package puzzles.common.solver;
+
+/**
+ * Receives reports from the BFS search of a {@link Solver} while it runs, for finding out why a solve is slow: whether
+ * the frontier is growing too fast, too many neighbors are duplicates, or generating neighbors or hashing them takes
+ * up the time. Every method does nothing unless overridden, so a listener only needs the reports it cares about.
+ * The listener is called on the thread running the search.
+ * @author Alex Lee
+ * */
+public interface SearchListener {
+    /**
+     * Called each time the search has expanded every configuration at one depth and moves on to the next
+     * @param depth: the depth that was finished (the start is depth 0)
+     * @param metrics: the metrics of the search so far, with the frontier size of the next depth already added
+     * */
+    default void depthFinished(int depth, SearchMetrics metrics) {}
+
+    /**
+     * Called once when the search ends, whether or not a solution was found
+     * @param metrics: the metrics of the whole search
+     * */
+    default void searchFinished(SearchMetrics metrics) {}
+}
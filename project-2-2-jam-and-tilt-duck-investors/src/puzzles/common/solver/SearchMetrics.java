@@ -0,0 +1,191 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The measurements of one BFS search of a {@link Solver}, handed to its {@link SearchListener}. Counting only costs a
+ * check per configuration, since the counts are copied from the counters the solver keeps anyway, so it is cheap
+ * enough to leave on. Timing how long generating neighbors takes
+ * compared to hashing them reads the clock twice per neighbor, so it is only done when the listener is set as timed.
+ * @author Alex Lee
+ * */
+public class SearchMetrics {
+    /** whether the time spent generating and hashing neighbors is measured */
+    private final boolean timed;
+    /** when the search started, from System.nanoTime */
+    private final long started;
+    /** the number of configurations waiting at the start of each depth, by depth */
+    private int[] frontierSizes;
+    /** the number of depths with a frontier size */
+    private int depths;
+    /** the number of configurations whose neighbors were generated */
+    private int expansions;
+    /** the number of neighbors generated */
+    private int generated;
+    /** the number of neighbors that were new (not already visited) */
+    private int unique;
+    /** the most configurations that were visited at once */
+    private int peakVisited;
+    /** the time spent generating neighbors, in nanoseconds (only when timed) */
+    private long neighborNanos;
+    /** the time spent looking up and adding neighbors to the visited configurations, in nanoseconds (only when timed) */
+    private long hashNanos;
+    /** how long the search took, in nanoseconds, once it has finished */
+    private long elapsedNanos;
+
+    /**
+     * Creates the metrics of a search that is starting
+     * @param timed: whether the time spent generating and hashing neighbors is measured
+     * */
+    SearchMetrics(boolean timed){
+        this.timed = timed;
+        this.started = System.nanoTime();
+        this.frontierSizes = new int[16];
+        this.addDepth(1); // the start
+    }
+
+    /**
+     * Records the number of configurations waiting at the start of the next depth
+     * @param frontierSize: the number of configurations at the depth
+     * */
+    void addDepth(int frontierSize){
+        if (this.depths == this.frontierSizes.length){
+            this.frontierSizes = Arrays.copyOf(this.frontierSizes, this.depths * 2);
+        }
+        this.frontierSizes[this.depths++] = frontierSize;
+    }
+
+    /**
+     * Brings the counts up to date with the counters of the solver, which are kept whether or not there is a listener
+     * @param expansions: the configurations expanded
+     * @param generated: the neighbors generated
+     * @param unique: the neighbors that were new
+     * @param visited: the configurations visited so far
+     * */
+    void update(int expansions, int generated, int unique, int visited){
+        this.expansions = expansions;
+        this.generated = generated;
+        this.unique = unique;
+        this.peakVisited = Math.max(this.peakVisited, visited);
+    }
+
+    /**
+     * Generates the neighbors of a configuration, timing the generation separately from the visitor (the hashing)
+     * @param config: the configuration being expanded
+     * @param visitor: looks up and adds each neighbor to the visited configurations
+     * */
+    void timeExpansion(Configuration config, Consumer<Configuration> visitor){
+        long hashBefore = this.hashNanos;
+        long begin = System.nanoTime();
+        config.forEachNeighbor(con -> {
+            long visit = System.nanoTime();
+            visitor.accept(con);
+            this.hashNanos += System.nanoTime() - visit;
+        });
+        this.neighborNanos += System.nanoTime() - begin - (this.hashNanos - hashBefore);
+    }
+
+    /** records how long the search took, once it has finished */
+    void finish(){
+        this.elapsedNanos = System.nanoTime() - this.started;
+    }
+
+    /**
+     * Checks if the time spent generating and hashing neighbors was measured
+     * @return true if the search was timed
+     * */
+    public boolean isTimed() {
+        return this.timed;
+    }
+
+    /**
+     * Gets the number of configurations waiting at the start of each depth
+     * @return a new array of frontier sizes, by depth (the start is depth 0)
+     * */
+    public int[] getFrontierSizes() {
+        return Arrays.copyOf(this.frontierSizes, this.depths);
+    }
+
+    /**
+     * Gets the number of configurations whose neighbors were generated so far
+     * @return the expansions
+     * */
+    public int getExpansions() {
+        return this.expansions;
+    }
+
+    /**
+     * Gets the number of neighbors generated so far
+     * @return the neighbors generated
+     * */
+    public int getGenerated() {
+        return this.generated;
+    }
+
+    /**
+     * Gets the fraction of generated neighbors that had already been visited
+     * @return the duplicate hit ratio (0 to 1), 0 if no neighbors were generated
+     * */
+    public double getDuplicateRatio() {
+        return this.generated == 0 ? 0 : (double) (this.generated - this.unique) / this.generated;
+    }
+
+    /**
+     * Gets the most configurations that were visited at once
+     * @return the peak size of the visited configurations
+     * */
+    public int getPeakVisited() {
+        return this.peakVisited;
+    }
+
+    /**
+     * Gets the time spent generating neighbors, which is 0 unless the search was timed
+     * @return the time in nanoseconds
+     * */
+    public long getNeighborNanos() {
+        return this.neighborNanos;
+    }
+
+    /**
+     * Gets the time spent looking up and adding neighbors to the visited configurations, which is 0 unless the search
+     * was timed
+     * @return the time in nanoseconds
+     * */
+    public long getHashNanos() {
+        return this.hashNanos;
+    }
+
+    /**
+     * Gets how long the search took (or has taken so far, while it is still running)
+     * @return the time in nanoseconds
+     * */
+    public long getElapsedNanos() {
+        return this.elapsedNanos != 0 ? this.elapsedNanos : System.nanoTime() - this.started;
+    }
+
+    /**
+     * Gets the number of configurations expanded per second
+     * @return the expansion rate
+     * */
+    public double getExpansionsPerSecond() {
+        return this.expansions / (this.getElapsedNanos() / 1e9);
+    }
+
+    /**
+     * Gets a one line summary of the metrics
+     * @return the summary
+     * */
+    @Override
+    public String toString() {
+        String summary = String.format("depth: %d, expansions: %d (%.0f/s), generated: %d, duplicates: %.1f%%, " +
+                        "peak visited: %d, elapsed: %d ms", this.depths - 1, this.expansions,
+                this.getExpansionsPerSecond(), this.generated, this.getDuplicateRatio() * 100, this.peakVisited,
+                this.getElapsedNanos() / 1_000_000);
+        if (this.timed){
+            summary += String.format(", neighbors: %d ms, hashing: %d ms",
+                    this.neighborNanos / 1_000_000, this.hashNanos / 1_000_000);
+        }
+        return summary;
+    }
+}
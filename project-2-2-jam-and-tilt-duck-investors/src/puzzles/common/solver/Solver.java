@@ -1,8 +1,25 @@
 package puzzles.common.solver;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /** A class meant to hold the main algorithm behind solving a puzzle configuration using a BFS based
  * search
@@ -14,11 +31,46 @@ public class Solver{
     /** the total amount of configurations that are created in the process of solving the puzzle
      * resets after every BFS search
      * */
-    private int totalConfigurations; // count the total configurations
+    protected int totalConfigurations; // count the total configurations
     /** the total number of unique configurations created in the process of solving a puzzle
      * Resets after every BFS solve
      * */
-    private int uniqueConfigurations;
+    protected int uniqueConfigurations;
+    /** the number of configurations whose neighbors were generated in the process of solving a puzzle
+     * Resets after every solve
+     * */
+    protected int expandedConfigurations;
+    /** creates a fresh frontier for every BFS search */
+    private final Supplier<Frontier<Configuration>> frontiers;
+    /** receives the metrics of every BFS search, or null if nothing is listening */
+    private SearchListener listener;
+    /** whether the listener also gets the time spent generating and hashing neighbors */
+    private boolean timedListener;
+
+    /**
+     * the configuration whose neighbors are being visited by BFSSearch, read by its visitor, which is created once
+     * per search instead of once per configuration
+     * */
+    private Configuration expanding;
+    /** the encoded configuration whose neighbors are being visited by the long encoded BFS */
+    private long expandingCode;
+    /** the index of the configuration whose neighbors are being visited by the wide encoded BFS */
+    private int expandingIndex;
+
+    /**
+     * Creates a solver that uses an {@link ArrayFrontier} to hold the configurations waiting to be expanded
+     * */
+    public Solver(){
+        this(ArrayFrontier::new);
+    }
+
+    /**
+     * Creates a solver that uses a given kind of frontier to hold the configurations waiting to be expanded
+     * @param frontiers: creates an empty FIFO frontier at the start of every search
+     * */
+    public Solver(Supplier<Frontier<Configuration>> frontiers){
+        this.frontiers = frontiers;
+    }
 
     /**
      * Gets the total number of configurations after solving a puzzle
@@ -36,6 +88,45 @@ public class Solver{
         return this.uniqueConfigurations;
     }
 
+    /**
+     * Gets the number of configurations that were expanded in the process of solving a puzzle
+     * @return the number of expanded configurations
+     * */
+    public int getExpandedConfigurations() {
+        return this.expandedConfigurations;
+    }
+
+    /**
+     * Sets the listener that receives the metrics of every BFSSearch run by this solver, counting only. This costs
+     * one check per configuration, so it is safe to leave on.
+     * @param listener: the listener, or null to stop listening
+     * */
+    public void setSearchListener(SearchListener listener){
+        this.setSearchListener(listener, false);
+    }
+
+    /**
+     * Sets the listener that receives the metrics of every BFSSearch run by this solver
+     * @param listener: the listener, or null to stop listening
+     * @param timed: if true, the time spent generating neighbors and hashing them is measured as well, which reads
+     *             the clock twice for every neighbor
+     * */
+    public void setSearchListener(SearchListener listener, boolean timed){
+        this.listener = listener;
+        this.timedListener = timed;
+    }
+
+    /**
+     * Stops a search once the thread running it has been interrupted, such as when a search running on an executor
+     * is cancelled through its Future. Every search checks this each time it expands a configuration (or a layer).
+     * @throws CancellationException: if the thread running the search has been interrupted
+     * */
+    protected static void checkCancelled(){
+        if (Thread.currentThread().isInterrupted()){
+            throw new CancellationException("search interrupted");
+        }
+    }
+
     /**
      * Given a path, prints out the steps of the given path, along with the total configurations and the
      * unique configurations. If no solution was available, will print out "No solution"
@@ -44,24 +135,43 @@ public class Solver{
      * @param path: the path of the solution
      * */
     public void printPath(List<Configuration> path){
-        System.out.println("Total configs: " + this.getTotalConfigurations());
-        System.out.println("Unique configs: " + this.getUniqueConfigurations());
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+        try {
+            this.printPath(path, out);
+            out.flush(); // System.out is left open
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Given a path, writes out the steps of the given path, along with the total configurations and the
+     * unique configurations, in the same form as printPath(path). Each step is written out as soon as it is
+     * rendered, so the whole path is never held as one String. The writer is not flushed or closed.
+     * @param path: the path of the solution
+     * @param out: where the steps are written
+     * @throws IOException: if the writer fails
+     * */
+    public void printPath(List<Configuration> path, Writer out) throws IOException {
+        String newLine = System.lineSeparator();
+        out.write("Total configs: " + this.getTotalConfigurations() + newLine);
+        out.write("Unique configs: " + this.getUniqueConfigurations() + newLine);
 
-        if (path.size() == 0){
-            System.out.println("No solution");
+        if (path.isEmpty() || path.contains(null)){
+            out.write("No solution" + newLine);
             return;
         }
 
-        String printStatement = "";
-        for (int i=0; i<path.size(); i++){
-            if (path.get(i) == null){
-                System.out.println("No solution");
-                return;
-            }
-
-            printStatement += "Step " + i + ": " + path.get(i) + "\n";
+        StringBuilder step = new StringBuilder();
+        int i = 0;
+        for (Configuration config : path){
+            step.setLength(0);
+            step.append("Step ").append(i++).append(": ");
+            config.render(step);
+            step.append('\n');
+            out.append(step);
         }
-        System.out.println(printStatement);
+        out.write(newLine);
     }
 
     /**
@@ -72,11 +182,11 @@ public class Solver{
      * @param end: the end configuration
      * @return the path of steps to from the start to the goal configuration
      * */
-    private List<Configuration> constructPath(
-            HashMap<Configuration, Configuration> predecessors,
+    protected List<Configuration> constructPath(
+            Map<Configuration, Configuration> predecessors,
             Configuration start, Configuration end){
         List<Configuration> path = new LinkedList<>();
-        if (predecessors.containsKey(end)){
+        if (end != null && predecessors.containsKey(end)){
             Configuration current = end;
             while (current == null || !current.equals(start)){
                 path.add(0, current);
@@ -85,6 +195,31 @@ public class Solver{
             path.add(0, start);
         }
 
+        return this.replay(path);
+    }
+
+    /**
+     * Makes every step of a path a real move from the step before it. A puzzle may treat configurations that are
+     * symmetric copies of each other as equal, so the configuration remembered for a step can be a copy of the one the
+     * previous step actually leads to. Each step is swapped for the neighbor of the previous step that equals it, which
+     * leaves paths of puzzles without such symmetry exactly as they were.
+     * @param path: the path from the start to the goal
+     * @return the same path, with each step replaced by the real neighbor of the step before it
+     * */
+    private List<Configuration> replay(List<Configuration> path){
+        ListIterator<Configuration> steps = path.listIterator();
+        Configuration previous = steps.hasNext() ? steps.next() : null;
+        while (steps.hasNext()){
+            Configuration step = steps.next();
+            for (Configuration con: previous.getNeighbors()){
+                if (step.equals(con)){
+                    steps.set(con);
+                    step = con;
+                    break;
+                }
+            }
+            previous = step;
+        }
         return path;
     }
 
@@ -99,16 +234,40 @@ public class Solver{
     public List<Configuration> BFSSearch(Configuration start){
         this.totalConfigurations = 1;
         this.uniqueConfigurations = 1; // takes into account the starting configuration
+        this.expandedConfigurations = 0;
+        SearchMetrics metrics = this.listener == null ? null : new SearchMetrics(this.timedListener);
+        if (!start.isSolvable()){ // no need to search for a solution that can't exist
+            this.reportFinished(metrics, 1);
+            return new LinkedList<>();
+        }
 
-        LinkedList<Configuration> queue = new LinkedList<Configuration>();
+        Frontier<Configuration> queue = this.frontiers.get();
         HashMap<Configuration, Configuration> predecessors = new HashMap<Configuration, Configuration>();
         Configuration end = null;
 
         queue.add(start);
         predecessors.put(start, start);
+        // goes through the neighbors
+        Consumer<Configuration> visitor = con -> {
+            this.totalConfigurations++;
+            if (!predecessors.containsKey(con)){
+                predecessors.put(con, this.expanding);
+                queue.add(con);
+                this.uniqueConfigurations++;
+            }
+        };
+        int depth = 0;
+        int depthLeft = 1; // the configurations of the depth still waiting to be expanded
 
         while (!queue.isEmpty()){
-            Configuration config = queue.remove(0);
+            if (metrics != null && depthLeft-- == 0){ // every configuration of the depth has been expanded
+                depthLeft = queue.size() - 1;
+                metrics.addDepth(queue.size());
+                metrics.update(this.expandedConfigurations, this.totalConfigurations - 1,
+                        this.uniqueConfigurations - 1, predecessors.size());
+                this.listener.depthFinished(depth++, metrics);
+            }
+            Configuration config = queue.remove();
             if (config == null){
                 continue;
             }
@@ -118,17 +277,527 @@ public class Solver{
                 break;
             }
 
-            // goes through the neighbors
-            for (Configuration con: config.getNeighbors()){
-                this.totalConfigurations++;
-                if (!predecessors.containsKey(con)){
-                    predecessors.put(con, config);
-                    queue.add(con);
-                    this.uniqueConfigurations++;
+            checkCancelled();
+            this.expandedConfigurations++;
+            this.expanding = config;
+            if (metrics != null && metrics.isTimed()){
+                metrics.timeExpansion(config, visitor);
+            }else{
+                config.forEachNeighbor(visitor);
+            }
+        }
+
+        this.expanding = null; // so the solver doesn't keep the search alive
+        this.reportFinished(metrics, predecessors.size());
+        return this.constructPath(predecessors, start, end);
+    }
+
+    /**
+     * Hands the metrics of a finished search to the listener, if there is one
+     * @param metrics: the metrics of the search, or null if nothing is listening
+     * @param visited: the number of configurations visited
+     * */
+    private void reportFinished(SearchMetrics metrics, int visited){
+        if (metrics == null){
+            return;
+        }
+        metrics.update(this.expandedConfigurations, this.totalConfigurations - 1, this.uniqueConfigurations - 1,
+                visited);
+        metrics.finish();
+        this.listener.searchFinished(metrics);
+    }
+
+    /**
+     * Given a starting configuration, will search for and construct a path from the initial configuration
+     * to the goal configuration, using a BFS search that only keeps the encoded form of each visited configuration.
+     * Configurations that fit in a long are searched with a {@link LongPredecessorTable}, and wider ones with an
+     * {@link EncodedStateTable}. Each configuration is decoded again when it is expanded, and only the configurations
+     * on the final path are decoded at the end.
+     * (If the size of the path is 0, no path exist)
+     * (Will also cause the totalConfigurations and the uniqueConfigurations to reset)
+     * @param start: the starting configuration
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    public List<Configuration> encodedBFSSearch(EncodableConfiguration start){
+        this.totalConfigurations = 1;
+        this.uniqueConfigurations = 1; // takes into account the starting configuration
+        this.expandedConfigurations = 0;
+        if (!start.isSolvable()){ // no need to search for a solution that can't exist
+            return new LinkedList<>();
+        }
+
+        if (start.getEncodedSize() <= Long.BYTES){
+            return this.replay(this.longBFSSearch(start));
+        }
+        return this.replay(this.wideBFSSearch(start));
+    }
+
+    /**
+     * Runs the encoded BFS for configurations that fit in a long. Each visited configuration is a single entry
+     * in a long to long predecessor table, and the path is built by walking that table from the goal back to the
+     * start before anything is decoded.
+     * @param start: the starting configuration
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    private List<Configuration> longBFSSearch(EncodableConfiguration start){
+        LongPredecessorTable predecessors = new LongPredecessorTable();
+        LongFrontier queue = new LongFrontier();
+        long startCode = start.encode();
+        long end = 0;
+        boolean solved = false;
+
+        predecessors.putIfAbsent(startCode, startCode);
+        queue.add(startCode);
+        Consumer<Configuration> visitor = con -> {
+            this.totalConfigurations++;
+            long next = ((EncodableConfiguration) con).encode();
+            if (predecessors.putIfAbsent(next, this.expandingCode)){
+                queue.add(next);
+                this.uniqueConfigurations++;
+            }
+        };
+
+        while (!queue.isEmpty()){
+            long code = queue.remove();
+            EncodableConfiguration config = start.decode(code);
+            if (config.isSolution()){
+                end = code;
+                solved = true;
+                break;
+            }
+            checkCancelled();
+            this.expandedConfigurations++;
+
+            this.expandingCode = code;
+            config.forEachNeighbor(visitor);
+        }
+
+        LinkedList<Configuration> path = new LinkedList<>();
+        if (solved){
+            long[] codes = new long[16];
+            int length = 0;
+            for (long code=end; code!=startCode; code=predecessors.get(code)){
+                if (length == codes.length){
+                    codes = Arrays.copyOf(codes, length * 2);
                 }
+                codes[length++] = code;
+            }
+            path.add(start);
+            for (int i=length - 1; i>=0; i--){
+                path.add(start.decode(codes[i]));
             }
         }
+        return path;
+    }
 
+    /**
+     * Runs the encoded BFS for configurations wider than a long. The visited configurations and their predecessors
+     * live in a single {@link EncodedStateTable}, and since the table numbers configurations in the order they are
+     * found, it doubles as the BFS queue.
+     * @param start: the starting configuration
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    private List<Configuration> wideBFSSearch(EncodableConfiguration start){
+        EncodedStateTable table = new EncodedStateTable(start.getEncodedSize());
+        byte[] buffer = new byte[table.getWidth()];
+        int end = -1;
+
+        start.encode(buffer, 0);
+        table.add(buffer, 0, 0);
+        Consumer<Configuration> visitor = con -> {
+            this.totalConfigurations++;
+            ((EncodableConfiguration) con).encode(buffer, 0);
+            if (table.add(buffer, 0, this.expandingIndex)){
+                this.uniqueConfigurations++;
+            }
+        };
+
+        for (int index=0; index<table.size(); index++){ // everything after the index is still waiting to be expanded
+            table.getKey(index, buffer, 0);
+            EncodableConfiguration config = start.decode(buffer, 0);
+            if (config.isSolution()){
+                end = index;
+                break;
+            }
+            checkCancelled();
+            this.expandedConfigurations++;
+
+            this.expandingIndex = index;
+            config.forEachNeighbor(visitor);
+        }
+
+        LinkedList<Configuration> path = new LinkedList<>();
+        if (end != -1){
+            for (int index=end; index!=0; index=table.getParent(index)){
+                table.getKey(index, buffer, 0);
+                path.addFirst(start.decode(buffer, 0));
+            }
+            path.addFirst(start);
+        }
+        return path;
+    }
+
+    /**
+     * Given a starting configuration, will search for and construct a path from the initial configuration
+     * to the goal configuration, using a level-synchronous BFS that expands each layer in parallel on the common
+     * fork/join pool.
+     * (If the size of the path is 0, no path exist)
+     * (Will also cause the totalConfigurations and the uniqueConfigurations to reset)
+     * @param start: the starting configuration
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    public List<Configuration> parallelBFSSearch(Configuration start){
+        return this.parallelBFSSearch(start, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Given a starting configuration, will search for and construct a path from the initial configuration
+     * to the goal configuration, using a level-synchronous BFS. Every configuration in a layer is expanded in parallel
+     * on the given pool, with new configurations claimed through a concurrent predecessor map, and the next layer is
+     * only started once the whole current layer is done. The path found is always as short as the one found by
+     * BFSSearch, although it may pass through different configurations.
+     * (If the size of the path is 0, no path exist)
+     * (Will also cause the totalConfigurations and the uniqueConfigurations to reset)
+     * (Configurations must be safe to expand from several threads at once)
+     * @param start: the starting configuration
+     * @param pool: the pool the layers are expanded on
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    public List<Configuration> parallelBFSSearch(Configuration start, ForkJoinPool pool){
+        this.totalConfigurations = 1;
+        this.uniqueConfigurations = 1; // takes into account the starting configuration
+        this.expandedConfigurations = 0;
+        if (!start.isSolvable()){ // no need to search for a solution that can't exist
+            return new LinkedList<>();
+        }
+
+        ConcurrentHashMap<Configuration, Configuration> predecessors = new ConcurrentHashMap<>();
+        LongAdder created = new LongAdder();
+        Configuration end = null;
+        predecessors.put(start, start);
+
+        List<Configuration> layer = new ArrayList<>();
+        layer.add(start);
+        if (start.isSolution()){
+            end = start;
+        }
+
+        while (end == null && !layer.isEmpty()){
+            checkCancelled();
+            this.expandedConfigurations += layer.size();
+            Layer next = pool.invoke(new LayerTask(layer, 0, layer.size(), predecessors, created));
+            layer = next.configs;
+            end = next.solution;
+        }
+
+        this.totalConfigurations += created.intValue();
+        this.uniqueConfigurations = predecessors.size();
         return this.constructPath(predecessors, start, end);
     }
+
+    /**
+     * Given a starting configuration, will search for and construct a path from the initial configuration to the
+     * closest goal configuration, by growing one BFS forward from the start and another backward from every goal until
+     * the two meet in the middle. Each round expands a whole layer of whichever side has the smaller frontier.
+     * (If the size of the path is 0, no path exist)
+     * (Will also cause the totalConfigurations and the uniqueConfigurations to reset)
+     * @param start: the starting configuration
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    public List<Configuration> bidirectionalSearch(ReversibleConfiguration start){
+        this.totalConfigurations = 1;
+        this.uniqueConfigurations = 1; // takes into account the starting configuration
+        this.expandedConfigurations = 0;
+        if (!start.isSolvable()){ // no need to search for a solution that can't exist
+            return new LinkedList<>();
+        }
+
+        SearchSide forward = new SearchSide(Configuration::forEachNeighbor);
+        SearchSide backward = new SearchSide(
+                (config, visitor) -> ((ReversibleConfiguration) config).forEachPredecessor(visitor));
+        Configuration meet = null;
+
+        forward.add(start, start, 0);
+        for (Configuration goal: start.getGoals()){
+            this.totalConfigurations++;
+            if (!backward.links.containsKey(goal)){
+                backward.add(goal, goal, 0);
+            }
+        }
+        if (backward.links.containsKey(start)){ // the start is already solved
+            meet = start;
+        }
+
+        while (meet == null && !forward.layer.isEmpty() && !backward.layer.isEmpty()){
+            if (forward.layer.size() <= backward.layer.size()){
+                meet = this.expandLayer(forward, backward);
+            }else{
+                meet = this.expandLayer(backward, forward);
+            }
+        }
+
+        // configurations reached by both sides (the meeting point at least) are only counted once
+        this.uniqueConfigurations = forward.links.size() + backward.links.size() - countShared(forward, backward);
+        return this.replay(this.joinPaths(forward, backward, meet));
+    }
+
+    /**
+     * Counts the configurations both sides of a bidirectional search have visited
+     * @param first: one side of the search
+     * @param second: the other side
+     * @return the number of configurations in both
+     * */
+    private static int countShared(SearchSide first, SearchSide second){
+        if (first.links.size() > second.links.size()){ // looks up the smaller side in the larger
+            return countShared(second, first);
+        }
+        int shared = 0;
+        for (Configuration config: first.links.keySet()){
+            if (second.links.containsKey(config)){
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Expands every configuration in one side's current layer, replacing it with the next layer. Every new
+     * configuration is checked against the other side, and the whole layer is finished before returning so that the
+     * shortest of the meeting points is the one used.
+     * @param side: the side being expanded
+     * @param other: the side being searched from the opposite end
+     * @return the configuration the shortest path passes through, or null if the sides have not met yet
+     * */
+    private Configuration expandLayer(SearchSide side, SearchSide other){
+        List<Configuration> layer = side.layer;
+        side.startLayer(other);
+        checkCancelled();
+        this.expandedConfigurations += layer.size();
+
+        for (Configuration config: layer){
+            side.expanding = config;
+            side.depth = side.depths.get(config) + 1;
+            side.expander.accept(config, side);
+        }
+        side.expanding = null;
+        this.totalConfigurations += side.generated;
+        return side.meet;
+    }
+
+    /**
+     * Constructs the path from the start to a goal that passes through the point where the two searches met
+     * @param forward: the side searched from the start, linking configurations to the one before them
+     * @param backward: the side searched from the goals, linking configurations to the one after them
+     * @param meet: the configuration both sides reached (null if they never met)
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    private List<Configuration> joinPaths(SearchSide forward, SearchSide backward, Configuration meet){
+        LinkedList<Configuration> path = new LinkedList<>();
+        if (meet == null){
+            return path;
+        }
+
+        path.add(meet);
+        Configuration current = meet;
+        Configuration next = forward.links.get(current);
+        while (!next.equals(current)){ // the start links to itself
+            path.addFirst(next);
+            current = next;
+            next = forward.links.get(current);
+        }
+
+        current = meet;
+        next = backward.links.get(current);
+        while (!next.equals(current)){ // every goal links to itself
+            path.addLast(next);
+            current = next;
+            next = backward.links.get(current);
+        }
+        return path;
+    }
+
+    /**
+     * One of the two searches run by a bidirectional search. The side is also the visitor the configurations of its
+     * layer hand the configurations one move further away to.
+     * */
+    private static class SearchSide implements Consumer<Configuration> {
+        /** links each visited configuration to the one it was reached from */
+        private final HashMap<Configuration, Configuration> links = new HashMap<>();
+        /** the number of moves between each visited configuration and where this side started */
+        private final HashMap<Configuration, Integer> depths = new HashMap<>();
+        /** hands the configurations one move further away from where this side started to a visitor */
+        private final BiConsumer<Configuration, Consumer<Configuration>> expander;
+        /** the configurations that were found last and still need to be expanded */
+        private List<Configuration> layer = new ArrayList<>();
+
+        /** the side being searched from the opposite end, while a layer is expanded */
+        private SearchSide other;
+        /** the configuration being expanded */
+        private Configuration expanding;
+        /** the number of moves the configurations found from the one being expanded are away from the start */
+        private int depth;
+        /** the meeting point of the shortest path found in the layer being expanded, or null if there is none */
+        private Configuration meet;
+        /** the length of the shortest path found in the layer being expanded */
+        private int shortest;
+        /** the number of configurations generated by the layer being expanded */
+        private int generated;
+
+        /**
+         * Creates an empty side of the search
+         * @param expander: hands the configurations one move further away from where this side started to a visitor
+         * */
+        private SearchSide(BiConsumer<Configuration, Consumer<Configuration>> expander){
+            this.expander = expander;
+        }
+
+        /**
+         * Gets ready to expand the current layer, which the configurations found by it replace
+         * @param other: the side being searched from the opposite end
+         * */
+        private void startLayer(SearchSide other){
+            this.layer = new ArrayList<>();
+            this.other = other;
+            this.meet = null;
+            this.shortest = Integer.MAX_VALUE;
+            this.generated = 0;
+        }
+
+        /**
+         * Visits a configuration one move further away than the one being expanded, checking it against the other
+         * side if it is new
+         * @param con: the configuration found
+         * */
+        @Override
+        public void accept(Configuration con) {
+            this.generated++;
+            if (!this.links.containsKey(con)){
+                this.add(con, this.expanding, this.depth);
+                Integer otherDepth = this.other.depths.get(con);
+                if (otherDepth != null && this.depth + otherDepth < this.shortest){
+                    this.shortest = this.depth + otherDepth;
+                    this.meet = con;
+                }
+            }
+        }
+
+        /**
+         * Marks a configuration as visited and queues it to be expanded with the next layer
+         * @param config: the newly visited configuration
+         * @param link: the configuration it was reached from
+         * @param depth: the number of moves it is away from where this side started
+         * */
+        private void add(Configuration config, Configuration link, int depth){
+            this.links.put(config, link);
+            this.depths.put(config, depth);
+            this.layer.add(config);
+        }
+    }
+
+    /**
+     * The configurations discovered while expanding a range of a layer
+     * */
+    private static class Layer {
+        /** the newly discovered configurations, in the order they were found */
+        private final List<Configuration> configs = new ArrayList<>();
+        /** the first newly discovered configuration that is a solution (null if there isn't one) */
+        private Configuration solution;
+
+        /**
+         * Appends the configurations discovered by the range that comes after this one
+         * @param after: the layer discovered from the range following this one
+         * @return this layer
+         * */
+        private Layer append(Layer after){
+            this.configs.addAll(after.configs);
+            if (this.solution == null){
+                this.solution = after.solution;
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Expands a range of a layer, splitting it in half until the range is small enough to expand directly.
+     * The task is also the visitor its configurations hand their neighbors to.
+     * */
+    private static class LayerTask extends RecursiveTask<Layer> implements Consumer<Configuration> {
+        /** the version of the task (RecursiveTask is serializable, though tasks are never serialized) */
+        private static final long serialVersionUID = 1L;
+        /** the largest range that is expanded without splitting it up */
+        private static final int THRESHOLD = 32;
+
+        /** the layer being expanded */
+        private final List<Configuration> layer;
+        /** the first index of the range (inclusive) */
+        private final int from;
+        /** the last index of the range (exclusive) */
+        private final int to;
+        /** the predecessors of every configuration discovered so far, shared between all the tasks */
+        private final ConcurrentHashMap<Configuration, Configuration> predecessors;
+        /** counts every configuration created, shared between all the tasks */
+        private final LongAdder created;
+        /** the configuration whose neighbors are currently being visited */
+        private Configuration expanding;
+        /** the configurations discovered by this task so far */
+        private Layer next;
+        /** the configurations created by this task so far */
+        private int count;
+
+        /**
+         * Creates a task that expands part of a layer
+         * @param layer: the layer being expanded
+         * @param from: the first index of the range (inclusive)
+         * @param to: the last index of the range (exclusive)
+         * @param predecessors: the predecessors of every configuration discovered so far
+         * @param created: counts every configuration created
+         * */
+        private LayerTask(List<Configuration> layer, int from, int to,
+                          ConcurrentHashMap<Configuration, Configuration> predecessors, LongAdder created){
+            this.layer = layer;
+            this.from = from;
+            this.to = to;
+            this.predecessors = predecessors;
+            this.created = created;
+        }
+
+        /**
+         * Expands the range, or splits it and expands both halves in parallel
+         * @return the configurations discovered by the range, in layer order
+         * */
+        @Override
+        protected Layer compute() {
+            if (this.to - this.from > THRESHOLD){
+                int middle = (this.from + this.to) >>> 1;
+                LayerTask left = new LayerTask(this.layer, this.from, middle, this.predecessors, this.created);
+                LayerTask right = new LayerTask(this.layer, middle, this.to, this.predecessors, this.created);
+                left.fork();
+                Layer after = right.compute();
+                return left.join().append(after);
+            }
+
+            this.next = new Layer();
+            for (int i=this.from; i<this.to; i++){
+                this.expanding = this.layer.get(i);
+                this.expanding.forEachNeighbor(this);
+            }
+            this.created.add(this.count);
+            return this.next;
+        }
+
+        /**
+         * Claims a neighbor of the configuration being expanded, unless another task got to it first
+         * @param con: the neighbor
+         * */
+        @Override
+        public void accept(Configuration con) {
+            this.count++;
+            if (this.predecessors.putIfAbsent(con, this.expanding) == null){ // this task claimed it first
+                this.next.configs.add(con);
+                if (this.next.solution == null && con.isSolution()){
+                    this.next.solution = con;
+                }
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package puzzles.strings;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.EncodableConfiguration;
+import puzzles.common.solver.ReversibleConfiguration;
 import puzzles.common.solver.Solver;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Represents a configuration of a String puzzle that holds an associated goal of letters
@@ -20,18 +23,25 @@ import java.util.*;
  * @author Alex Lee
  * */
 
-public class StringConfig implements Configuration {
-    /** the letters representing this configuration */
-    private final String content;
-    /** The letters representing the goal of the overall puzzle */
-    private static String goal; // never changes, and is shared between all instances of the class
+public class StringConfig implements ReversibleConfiguration, EncodableConfiguration {
+    /** the most letters that can be packed into a long at 5 bits a letter */
+    private static final int PACKED_LENGTH = Long.SIZE / 5;
+
+    /** the letters representing this configuration (never changed once the configuration is made) */
+    private final char[] content;
+    /** the hashcode of the letters, worked out once since every configuration is hashed at least once */
+    private final int hash;
+    /** The letters representing the goal of the overall puzzle (the same array is shared by every configuration) */
+    private final char[] goal;
+    /** whether every configuration of the puzzle is packed at 5 bits a letter, decided by the starting letters */
+    private final boolean packed;
 
     /**
      * Gets the letters of configuration
      * @return the letters of the configuration
      * */
     public String getContent() {
-        return this.content;
+        return new String(this.content);
     }
 
     /**
@@ -39,7 +49,7 @@ public class StringConfig implements Configuration {
      * @return the goal
      * */
     public String getGoal() {
-        return goal;
+        return new String(this.goal);
     }
 
     /**
@@ -48,16 +58,16 @@ public class StringConfig implements Configuration {
      *
      * @param letter: the letter to be changed
      * @param direction: the amount the letter is moved (can only be -1,0, or 1)
-     * @return the new letter in a String form
+     * @return the new letter
      * */
-    private String moveLetter(char letter, int direction){
+    private static char moveLetter(char letter, int direction){
         letter += direction;
         if (letter > 'Z'){
             letter = 'A';
         }else if (letter < 'A'){
             letter = 'Z';
         }
-        return Character.toString(letter);
+        return letter;
     }
 
     /**
@@ -66,16 +76,42 @@ public class StringConfig implements Configuration {
      * @param endGoal: the letters that represent the end goal configuration
      * */
     public StringConfig(String content, String endGoal){
-        this.content = content;
-        goal = endGoal;
+        this(content.toCharArray(), endGoal.toCharArray(),
+                content.length() <= PACKED_LENGTH && content.chars().allMatch(c -> c == ' ' || (c >= 'A' && c <= 'Z')));
     }
 
     /**
-     * A private constructor used to be called by a StringConfig
+     * A private constructor used to be called by a StringConfig, which takes ownership of the letters
      * @param content: the letters of the string configuration
+     * @param goal: the goal letters shared by the puzzle
+     * @param packed: whether configurations of the puzzle are packed at 5 bits a letter
      * */
-    private StringConfig(String content){
+    private StringConfig(char[] content, char[] goal, boolean packed){
         this.content = content;
+        this.hash = Arrays.hashCode(content);
+        this.goal = goal;
+        this.packed = packed;
+    }
+
+    /**
+     * Creates a configuration of the same puzzle holding other letters
+     * @param letters: the letters of the new configuration (not copied)
+     * @return the new configuration
+     * */
+    private StringConfig withContent(char[] letters){
+        return new StringConfig(letters, this.goal, this.packed);
+    }
+
+    /**
+     * Creates the neighbor where a single letter has been moved
+     * @param index: the position of the letter
+     * @param direction: the amount the letter is moved (-1 or 1)
+     * @return the configuration with the letter moved
+     * */
+    StringConfig move(int index, int direction){
+        char[] letters = this.content.clone();
+        letters[index] = moveLetter(letters[index], direction);
+        return this.withContent(letters);
     }
 
     /**
@@ -84,7 +120,35 @@ public class StringConfig implements Configuration {
      * */
     @Override
     public boolean isSolution() {
-        return this.content.equals(goal);
+        return Arrays.equals(this.content, this.goal);
+    }
+
+    /**
+     * Estimates the moves left before this configuration becomes the goal, for use as an A* heuristic. Each move only
+     * changes one letter by one step around the alphabet, so for capital letters the estimate is the sum of how many
+     * steps each letter is from its goal letter going the shorter way around, which is exactly the moves left.
+     * Any other character that doesn't match counts as 1 move.
+     * @return a lower bound on the number of moves left (0 if this is the goal)
+     * */
+    public int estimateMovesLeft() {
+        if (this.content.length != this.goal.length){ // can never become the goal
+            return 1;
+        }
+        int estimate = 0;
+        for (int i=0; i<this.content.length; i++){
+            char letter = this.content[i];
+            char target = this.goal[i];
+            if (letter == target){
+                continue;
+            }
+            if (letter >= 'A' && letter <= 'Z' && target >= 'A' && target <= 'Z'){
+                int distance = Math.abs(letter - target);
+                estimate += Math.min(distance, 26 - distance);
+            }else{
+                estimate++;
+            }
+        }
+        return estimate;
     }
 
     /**
@@ -100,29 +164,164 @@ public class StringConfig implements Configuration {
     @Override
     public Collection<Configuration> getNeighbors() {
         Collection<Configuration> queue = new LinkedList<>();
+        this.adjacent(false, queue::add);
+        return queue;
+    }
 
-        for (int i=0; i<this.content.length(); i++){
-            if (this.content.charAt(i) == ' '){ // handles the case of a blank word
+    /**
+     * Hands every neighbor to a visitor as it is created, in the same order as getNeighbors
+     * @param visitor: called once with each neighbor
+     * */
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> visitor) {
+        this.adjacent(false, visitor);
+    }
+
+    /**
+     * Gets the configurations that can reach this one in a single move. Moving a letter up can always be undone by
+     * moving it back down, so these are the neighbors, except for positions holding something other than a capital
+     * letter, since a move always turns a character into a capital letter.
+     * @return a collection of predecessor configurations
+     * */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        Collection<Configuration> queue = new LinkedList<>();
+        this.adjacent(true, queue::add);
+        return queue;
+    }
+
+    /**
+     * Hands every predecessor to a visitor as it is created, in the same order as getPredecessors
+     * @param visitor: called once with each predecessor
+     * */
+    @Override
+    public void forEachPredecessor(Consumer<Configuration> visitor) {
+        this.adjacent(true, visitor);
+    }
+
+    /**
+     * Creates every configuration that is one letter move away from this one
+     * @param lettersOnly: if true, positions that don't hold a capital letter are left alone
+     * @param visitor: called once with each adjacent configuration
+     * */
+    private void adjacent(boolean lettersOnly, Consumer<Configuration> visitor){
+        for (int i=0; i<this.content.length; i++){
+            char letter = this.content[i];
+            if (letter == ' '){ // handles the case of a blank word
+                continue;
+            }
+            if (lettersOnly && (letter < 'A' || letter > 'Z')){
                 continue;
             }
 
-            char letter = this.content.charAt(i);
-            String upward = this.moveLetter(letter, -1);
-            String downward = this.moveLetter(letter, 1);
+            visitor.accept(this.move(i, -1));
+            visitor.accept(this.move(i, 1));
+        }
+    }
 
-            StringConfig upConfig = new StringConfig(
-                    this.content.substring(0,i) + upward + this.content.substring(i+1)
-            );
+    /**
+     * Gets the goal configurations of the puzzle, of which there is only one
+     * @return a collection holding the goal configuration
+     * */
+    @Override
+    public Collection<Configuration> getGoals() {
+        Collection<Configuration> goals = new LinkedList<>();
+        goals.add(this.withContent(this.goal));
+        return goals;
+    }
 
-            StringConfig downConfig = new StringConfig(
-                    this.content.substring(0,i) + downward + this.content.substring(i+1)
-            );
+    /**
+     * Gets the number of bytes a configuration is encoded into. Capital letters and spaces are packed into 5 bits
+     * each when the letters fit in a long; anything else takes 2 bytes per character.
+     * (moving a letter always results in a capital letter, so if the start is all capital letters every
+     * configuration of the puzzle is)
+     * @return the width of an encoded configuration
+     * */
+    @Override
+    public int getEncodedSize() {
+        if (this.packed){
+            return Math.max(1, (this.content.length * 5 + 7) / 8);
+        }
+        return this.content.length * 2;
+    }
 
-            queue.add(upConfig);
-            queue.add(downConfig);
+    /**
+     * Writes the letters of this configuration into an array
+     * @param dest: the array being written into
+     * @param offset: the index of the first byte to write
+     * */
+    @Override
+    public void encode(byte[] dest, int offset) {
+        if (this.packed){
+            long code = this.encode();
+            for (int i=offset + this.getEncodedSize() - 1; i>=offset; i--){
+                dest[i] = (byte) code;
+                code >>>= 8;
+            }
+        }else{
+            for (int i=0; i<this.content.length; i++){
+                char letter = this.content[i];
+                dest[offset + 2*i] = (byte) (letter >>> 8);
+                dest[offset + 2*i + 1] = (byte) letter;
+            }
         }
+    }
 
-        return queue;
+    /**
+     * Rebuilds a configuration of the puzzle from its encoded letters
+     * @param src: the array holding the encoded configuration
+     * @param offset: the index of its first byte
+     * @return the decoded configuration
+     * */
+    @Override
+    public StringConfig decode(byte[] src, int offset) {
+        if (this.packed){
+            long code = 0;
+            for (int i=offset; i<offset + this.getEncodedSize(); i++){
+                code = (code << 8) | (src[i] & 0xFF);
+            }
+            return this.decode(code);
+        }
+        char[] letters = new char[this.content.length];
+        for (int i=0; i<letters.length; i++){
+            letters[i] = (char) (((src[offset + 2*i] & 0xFF) << 8) | (src[offset + 2*i + 1] & 0xFF));
+        }
+        return this.withContent(letters);
+    }
+
+    /**
+     * Packs the letters of this configuration into a long, 5 bits a letter (0 for a space, 1 to 26 for A to Z)
+     * @return the encoded configuration
+     * */
+    @Override
+    public long encode() {
+        if (!this.packed){
+            return EncodableConfiguration.super.encode();
+        }
+        long code = 0;
+        for (char letter : this.content){
+            code = (code << 5) | (letter == ' ' ? 0 : letter - 'A' + 1);
+        }
+        return code;
+    }
+
+    /**
+     * Rebuilds a configuration of the puzzle from the long returned by encode()
+     * @param code: the encoded configuration
+     * @return the decoded configuration
+     * */
+    @Override
+    public StringConfig decode(long code) {
+        if (!this.packed){
+            return (StringConfig) EncodableConfiguration.super.decode(code);
+        }
+        char[] letters = new char[this.content.length];
+        for (int i=letters.length - 1; i>=0; i--){
+            int letter = (int) (code & 0x1F);
+            letters[i] = letter == 0 ? ' ' : (char) ('A' + letter - 1);
+            code >>>= 5;
+        }
+        return this.withContent(letters);
     }
 
     /**
@@ -138,7 +337,8 @@ public class StringConfig implements Configuration {
     public boolean equals(Object obj) {
         boolean result = false;
         if (obj instanceof StringConfig config){
-            result = config.content.equals(this.content) && config.getGoal().equals(this.getGoal());
+            result = config.hash == this.hash && Arrays.equals(config.content, this.content)
+                    && (config.goal == this.goal || Arrays.equals(config.goal, this.goal));
         }
         return result;
     }
@@ -149,7 +349,7 @@ public class StringConfig implements Configuration {
      * */
     @Override
     public int hashCode() {
-        return this.content.hashCode() + goal.hashCode();
+        return this.hash;
     }
 
     /**
@@ -158,6 +358,15 @@ public class StringConfig implements Configuration {
      * */
     @Override
     public String toString() {
-        return this.content;
+        return new String(this.content);
+    }
+
+    /**
+     * Appends the letters to a builder without making a String of them first
+     * @param out: the builder being appended to
+     * */
+    @Override
+    public void render(StringBuilder out) {
+        out.append(this.content);
     }
 }
@@ -0,0 +1,73 @@
+package puzzles.strings;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.AStarSolver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A solver that knows how the strings puzzle works. Every move changes a single letter by one step around the
+ * alphabet, and the letters never affect each other, so the shortest path just walks each letter to its goal letter
+ * the shorter way around, one position after the other. The path is written out directly, in time proportional to
+ * its length, instead of searching for it. The generic searches are still there for checking the direct path.
+ * @author Alex Lee
+ * */
+public class StringSolver extends AStarSolver {
+    /**
+     * Builds the shortest path from a starting string to its goal without searching. Letters are moved from the
+     * leftmost position to the rightmost, each one all the way before the next, and a letter exactly halfway around
+     * the alphabet is moved down, which gives the same path as BFSSearch. Puzzles the direct path can't handle
+     * (different lengths, or a position where the start or goal is not a capital letter and they differ) fall back
+     * to BFSSearch.
+     * (If the size of the path is 0, no path exist)
+     * (Will also cause the totalConfigurations and the uniqueConfigurations to reset)
+     * @param start: the starting configuration
+     * @return the path of steps to from the start to the goal configuration
+     * */
+    public List<Configuration> directSearch(StringConfig start){
+        String content = start.getContent();
+        String goal = start.getGoal();
+        if (!isDirect(content, goal)){
+            return this.BFSSearch(start);
+        }
+
+        List<Configuration> path = new ArrayList<>();
+        StringConfig current = start;
+        path.add(current);
+        for (int i=0; i<content.length(); i++){
+            int forward = Math.floorMod(goal.charAt(i) - content.charAt(i), 26); // steps needed moving up
+            int direction = forward < 13 ? 1 : -1; // halfway around goes down, like BFSSearch
+            int steps = direction == 1 ? forward : 26 - forward;
+            for (int step=0; step<steps; step++){
+                current = current.move(i, direction);
+                path.add(current);
+            }
+        }
+
+        this.totalConfigurations = path.size();
+        this.uniqueConfigurations = path.size();
+        this.expandedConfigurations = path.size() - 1;
+        return path;
+    }
+
+    /**
+     * Checks if the direct path can be used for a puzzle
+     * @param content: the starting letters
+     * @param goal: the goal letters
+     * @return true if both are the same length and every position that differs holds capital letters in both
+     * */
+    private static boolean isDirect(String content, String goal){
+        if (content.length() != goal.length()){
+            return false;
+        }
+        for (int i=0; i<content.length(); i++){
+            char letter = content.charAt(i);
+            char target = goal.charAt(i);
+            if (letter != target && (letter < 'A' || letter > 'Z' || target < 'A' || target > 'Z')){
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,7 +1,6 @@
 package puzzles.strings;
 
 import puzzles.common.solver.Configuration;
-import puzzles.common.solver.Solver;
 import puzzles.strings.StringConfig;
 
 import java.util.List;
@@ -16,17 +15,32 @@ public class Strings{
      * Run an instance of the strings puzzle.
      *
      * @param args [0]: the starting string;
-     *             [1]: the finish string.
+     *             [1]: the finish string;
+     *             [2]: (optional) "bfs" to search with the generic BFS instead of writing the path out directly,
+     *                  "bidirectional" to search from both ends at once, "encoded" to only keep the encoded bytes of
+     *                  each visited string, or "astar" to search towards the finish using the distance of each
+     *                  letter from its finish letter.
      */
     public static void main(String[] args) {
         if (args.length < 2) {
-            System.out.println(("Usage: java Strings start finish"));
+            System.out.println(("Usage: java Strings start finish [bfs|bidirectional|encoded|astar]"));
         } else {
-            Solver solve = new Solver();
+            StringSolver solve = new StringSolver();
             StringConfig start = new StringConfig(args[0], args[1]);
             //StringConfig end = new StringConfig(args[1], args[1]);
 
-            List<Configuration> path = solve.BFSSearch(start);
+            List<Configuration> path;
+            if (args.length > 2 && args[2].equals("bidirectional")){
+                path = solve.bidirectionalSearch(start);
+            }else if (args.length > 2 && args[2].equals("encoded")){
+                path = solve.encodedBFSSearch(start);
+            }else if (args.length > 2 && args[2].equals("astar")){
+                path = solve.AStarSearch(start, StringConfig::estimateMovesLeft);
+            }else if (args.length > 2 && args[2].equals("bfs")){
+                path = solve.BFSSearch(start);
+            }else{
+                path = solve.directSearch(start);
+            }
 
             System.out.println("Start: " + start.getContent() + ", End: " + start.getGoal());
             solve.printPath(path);
@@ -0,0 +1,212 @@
+package puzzles.tilt.generator;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SearchListener;
+import puzzles.common.solver.SearchMetrics;
+import puzzles.common.solver.Solver;
+import puzzles.tilt.model.TiltConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Generates random tilt boards that can be solved, for stressing the solvers with boards bigger and harder than the
+ * hand-written ones. Each board is graded by the BFS search of the {@link Solver}: by the fewest tilts that solve it
+ * and by the number of unique boards the search visits before solving it, the same counts the solver prints for the
+ * hand-written boards. Given the same seed, the generator always gives the same boards, so a corpus written once can
+ * be written again byte for byte for later performance runs.
+ * @author Alex Lee
+ * */
+public class TiltGenerator {
+    /** the most boards the search of a generated board may visit (searches going past it are given up on) */
+    private static final int MAX_STATES = 1 << 20;
+    /** the most random boards tried for each board generated */
+    private static final int MAX_ATTEMPTS = 1000;
+    /** the line separator of the board files, the same as the hand-written boards */
+    private static final String NEW_LINE = "\r\n";
+
+    /**
+     * The shape of the boards in one part of a corpus
+     * @param dim: the number of rows and columns
+     * @param greens: the number of green dots
+     * @param blues: the number of blue dots
+     * @param density: the chance of each spot holding a blocker
+     * @param minMoves: the fewest tilts a board must need to be kept
+     * @param minStates: the fewest boards the search of a board must visit for it to be kept
+     * */
+    private record Shape(int dim, int greens, int blues, double density, int minMoves, int minStates) {}
+
+    /** the shapes of the corpus written by main, from small boards to large ones */
+    private static final List<Shape> CORPUS = List.of(
+            new Shape(6, 4, 3, 0.12, 10, 0),
+            new Shape(7, 6, 4, 0.12, 14, 1000),
+            new Shape(8, 8, 6, 0.10, 18, 5000), // about tilt-8
+            new Shape(9, 8, 8, 0.10, 20, 20000),
+            new Shape(10, 10, 8, 0.10, 22, 100000),
+            new Shape(12, 12, 10, 0.08, 24, 400000) // past tilt-10, the hardest hand-written board
+    );
+
+    /**
+     * A generated board along with its grades
+     * @param rows: the characters of the board, one array per row
+     * @param moves: the fewest tilts that solve the board
+     * @param states: the number of unique boards the BFS search visited before solving it, itself included
+     * */
+    public record Board(char[][] rows, int moves, int states) {}
+
+    /** gives up on a search once it has visited more than MAX_STATES boards, checked after each depth */
+    private static final SearchListener STATE_CAP = new SearchListener() {
+        @Override
+        public void depthFinished(int depth, SearchMetrics metrics) {
+            if (metrics.getPeakVisited() > MAX_STATES){
+                throw new CancellationException("more than " + MAX_STATES + " boards visited");
+            }
+        }
+    };
+
+    /** the random numbers every board is made from */
+    private final Random random;
+
+    /**
+     * Creates a generator
+     * @param seed: the seed of the random numbers, which decides every board generated
+     * */
+    public TiltGenerator(long seed){
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates a random board that can be solved. A hole is put on a random spot, each other spot gets a blocker
+     * with the given chance, and the dots go on random empty spots. Boards that can't be solved, that need fewer
+     * than minMoves tilts, whose search visits fewer than minStates boards, or whose search visits too many boards
+     * to grade are thrown away and another is tried.
+     * @param dim: the number of rows and columns
+     * @param greens: the number of green dots (at least 1)
+     * @param blues: the number of blue dots
+     * @param density: the chance of each spot holding a blocker (0 to 1)
+     * @param minMoves: the fewest tilts a board must need
+     * @param minStates: the fewest boards the search of a board must visit
+     * @return the board, or null if no board was found within the attempts allowed
+     * */
+    public Board generate(int dim, int greens, int blues, double density, int minMoves, int minStates){
+        for (int attempt=0; attempt<MAX_ATTEMPTS; attempt++){
+            char[][] rows = this.randomBoard(dim, greens, blues, density);
+            if (rows == null){ // too many blockers to fit the dots
+                continue;
+            }
+            Solver solver = new Solver();
+            solver.setSearchListener(STATE_CAP);
+            List<Configuration> path;
+            try {
+                path = solver.BFSSearch(new TiltConfig(rows));
+            }catch (CancellationException e){ // too many boards to grade
+                continue;
+            }
+            int moves = path.size() - 1; // -1 if there is no solution
+            if (moves >= minMoves && solver.getUniqueConfigurations() >= minStates){
+                return new Board(rows, moves, solver.getUniqueConfigurations());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Places a hole, blockers and dots on an empty board at random
+     * @param dim: the number of rows and columns
+     * @param greens: the number of green dots
+     * @param blues: the number of blue dots
+     * @param density: the chance of each spot holding a blocker
+     * @return the board, or null if there were not enough empty spots left for the dots
+     * */
+    private char[][] randomBoard(int dim, int greens, int blues, double density){
+        char[][] rows = new char[dim][dim];
+        List<Integer> empty = new ArrayList<>();
+        int hole = this.random.nextInt(dim * dim);
+        for (int spot=0; spot<dim * dim; spot++){
+            char fixed = '.';
+            if (spot == hole){
+                fixed = 'O';
+            }else if (this.random.nextDouble() < density){
+                fixed = '*';
+            }else{
+                empty.add(spot);
+            }
+            rows[spot / dim][spot % dim] = fixed;
+        }
+        if (empty.size() < greens + blues){
+            return null;
+        }
+
+        for (int dot=0; dot<greens + blues; dot++){
+            int spot = empty.remove(this.random.nextInt(empty.size()));
+            rows[spot / dim][spot % dim] = dot < greens ? 'G' : 'B';
+        }
+        return rows;
+    }
+
+    /**
+     * Writes a board to a file in the same form as the hand-written boards, so it can be loaded by every viewer
+     * and solver
+     * @param rows: the characters of the board, one array per row
+     * @param file: the file being written
+     * @throws IOException: if the file can not be written
+     * */
+    public static void write(char[][] rows, File file) throws IOException{
+        try (PrintWriter out = new PrintWriter(file)){
+            out.print(rows.length);
+            for (char[] row : rows){
+                out.print(NEW_LINE);
+                for (int col=0; col<row.length; col++){
+                    out.print(col == 0 ? "" : " ");
+                    out.print(row[col]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a corpus of generated boards to a directory, along with an index (corpus.csv) holding the shape and
+     * grades of every board. The same seed always writes the same corpus.
+     * @param args [0]: the directory to write into (created if missing);
+     *             [1]: (optional) the seed, 0 if not given;
+     *             [2]: (optional) the number of boards of each size, 4 if not given
+     * @throws IOException: if a file can not be written
+     * */
+    public static void main(String[] args) throws IOException{
+        if (args.length < 1 || args.length > 3){
+            System.out.println("Usage: java TiltGenerator directory [seed] [boards per size]");
+            return;
+        }
+        File directory = new File(args[0]);
+        long seed = args.length >= 2 ? Long.parseLong(args[1]) : 0;
+        int perShape = args.length == 3 ? Integer.parseInt(args[2]) : 4;
+        if (!directory.isDirectory() && !directory.mkdirs()){
+            throw new IOException("Can not create " + directory);
+        }
+
+        TiltGenerator generator = new TiltGenerator(seed);
+        try (PrintWriter index = new PrintWriter(new File(directory, "corpus.csv"))){
+            index.print("file,dim,greens,blues,density,moves,states" + NEW_LINE);
+            for (Shape shape : CORPUS){
+                for (int i=0; i<perShape; i++){
+                    Board board = generator.generate(shape.dim(), shape.greens(), shape.blues(), shape.density(),
+                            shape.minMoves(), shape.minStates());
+                    if (board == null){
+                        System.out.println("No board found for " + shape);
+                        continue;
+                    }
+                    String name = "gen-" + shape.dim() + "-" + i + ".txt";
+                    write(board.rows(), new File(directory, name));
+                    index.print(name + "," + shape.dim() + "," + shape.greens() + "," + shape.blues() + "," +
+                            shape.density() + "," + board.moves() + "," + board.states() + NEW_LINE);
+                    System.out.println(name + ": " + board.moves() + " moves, " + board.states() + " states");
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package puzzles.tilt.gui;
 
+import javafx.geometry.Orientation;
 import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
@@ -8,10 +10,11 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.FileChooser;
 import puzzles.common.Observer;
-import puzzles.tilt.model.TiltConfig;
+import puzzles.common.solver.DistanceTable;
 import puzzles.tilt.model.TiltModel;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -37,6 +40,12 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
     private TiltModel model;
     /** The gridpane that holds the contents of the game (dots, holes, and barriers) */
     private GridPane centerGrid;
+    /** the white button shown by each cell of the grid when it is empty */
+    private Button[][] cellButtons;
+    /** the image shown by each cell of the grid when it holds a dot, block or hole */
+    private ImageView[][] cellImages;
+    /** the character of the board each cell of the grid is currently showing */
+    private char[][] shownSpots;
 
     // for demonstration purposes
     /** The image of the green disk */
@@ -61,9 +70,13 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
 
     /** the restart button */
     private Button restart;
+    /** the button that plays the solution, or pauses it while it is playing */
+    private Button play;
 
     /** A label that notifies the user of events such as a movement being made */
     private Label message;
+    /** A label showing the fewest moves left to win, once the model has worked them out */
+    private Label movesLeft;
 
     /** keeps track of whether the previous move was a hint or not */
     private boolean receivedHint;
@@ -73,7 +86,7 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
      * */
     public void init() {
         String filename = getParameters().getRaw().get(0);
-        this.model = new TiltModel();
+        this.model = new TiltModel(Platform::runLater, true);
         this.model.loadFile(filename);
         this.model.addObserver(this);
         this.receivedHint = false;
@@ -151,9 +164,12 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
 
         this.message = new Label("Loaded: " + this.model.getFileName());
         this.message.setFont(Font.font("Arial", 20));
+        this.movesLeft = new Label();
+        this.movesLeft.setFont(Font.font("Arial", 16));
+        this.showMovesLeft();
 
         borderPane.setLeft(this.westButton);
-        borderPane.setTop(new VBox(message, this.northButton));
+        borderPane.setTop(new VBox(message, this.movesLeft, this.northButton));
         borderPane.setBottom(this.southButton);
         borderPane.setRight(rightBorder);
 
@@ -173,7 +189,7 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
         Button hint = new Button("Hint");
         hint.setOnAction((event) -> {
             if (!this.model.gameOver()) {
-                this.model.getHint();
+                this.model.requestHint();
             }else{
                 this.message.setText("Already Solved");
             }
@@ -182,7 +198,26 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
         hint.setBackground(Background.fill(Color.YELLOW));
         hint.setFont(Font.font("Arial", 20));
 
-        VBox vbox = new VBox(loadButton, restart, hint);
+        Button play = new Button("Play");
+        play.setOnAction((event) -> {
+            if (this.model.isPlaying()) {
+                this.model.pause();
+            }else if (!this.model.gameOver()) {
+                this.model.play();
+            }else{
+                this.message.setText("Already Solved");
+            }
+        });
+        play.setBackground(Background.fill(Color.LIGHTBLUE));
+        play.setFont(Font.font("Arial", 20));
+        this.play = play;
+
+        Slider speed = new Slider(50, 2000, TiltModel.DEFAULT_PLAYBACK_DELAY); // milliseconds between moves
+        speed.setOrientation(Orientation.VERTICAL);
+        speed.setPrefWidth(40);
+        speed.valueProperty().addListener((observable, old, delay) -> this.model.setPlaybackDelay(delay.longValue()));
+
+        VBox vbox = new VBox(loadButton, restart, hint, play, new Label("Delay"), speed);
 
         rightBorder.setRight(vbox);
 
@@ -196,76 +231,116 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
     }
 
     /**
-     * Adds in an image view to the center grid
-     * @param row: the row of the image view
-     * @param col: the column of the image view
-     * @param img: the image to be placed in the center grid
-     * @param but: a button to which the image gets its size from
+     * Gets the image that stands for a character of the board
+     * G --> green slider
+     * B --> blue slider
+     * * --> a bumper that makes a slider stop
+     * O --> a hole that all green sliders can go through (can only be one, but can be anywhere)
+     * @param spot: the character of the board
+     * @return the image, shared by every cell showing it, or null for an empty spot to slide through
      * */
-    private void addImageView(int row, int col, Image img, Button but){
-        ImageView view = new ImageView(img);
-        view.setPreserveRatio(true);
-        view.setFitWidth(but.getPrefWidth());
-        view.setFitHeight(but.getPrefHeight());
-        this.centerGrid.add(view, col, row);
+    private Image imageOf(char spot){
+        return switch (spot) {
+            case 'G' -> this.greenDisk;
+            case 'B' -> this.blueDisk;
+            case '*' -> this.block;
+            case 'O' -> this.hole;
+            default -> null;
+        };
     }
 
     /**
-     * Adds in a button to the center grid and a corresponding image based on the models board
-     * @param row: the row the button
-     * @param col: the column of the button
+     * Adds in a cell to the center grid, made of a white button for when it is empty and an image view for when it
+     * is not, which stay in the grid until another board is loaded
+     * @param row: the row the cell
+     * @param col: the column of the cell
      * */
-    private void addGridButton(int row, int col){
-        /*
-         * G --> green slider
-         * B --> blue slider ()
-         * - --> an empty spot to slide through
-         * * --> a bumper that makes a slider stop
-         * O --> a hole that all green sliders can go through (can only be one, but can be anywhere)
-         * */
-
+    private void addGridCell(int row, int col){
         Button but = new Button();
         but.setBorder(Border.stroke(Color.GRAY));
+        but.setBackground(Background.fill(Color.WHITE));
 
-        double width = (WIDTH-80) / TiltConfig.getDIM();
-        double height = (HEIGHT-135) / TiltConfig.getDIM();
+        double width = (WIDTH-80) / this.model.getDIM();
+        double height = (HEIGHT-135) / this.model.getDIM();
         but.setPrefSize(width, height);
 
-        switch (this.model.getSpot(row, col)) {
-            case 'G' -> {
-                addImageView(row, col, greenDisk, but);
-            }
-            case 'B' -> {
-                addImageView(row, col, blueDisk, but);
-            }
-            case '*' -> {
-                addImageView(row, col, block, but);
-            }
-            case 'O' -> {
-                addImageView(row, col, hole, but);
-            }
-            default -> {
-                but.setBackground(Background.fill(Color.WHITE));
-                this.centerGrid.add(but, col, row); // why does the row and col need to be reversed???
-            }
-        }
+        ImageView view = new ImageView();
+        view.setPreserveRatio(true);
+        view.setFitWidth(width);
+        view.setFitHeight(height);
+
+        this.cellButtons[row][col] = but;
+        this.cellImages[row][col] = view;
+        this.centerGrid.add(new StackPane(but, view), col, row); // why does the row and col need to be reversed???
+        this.showSpot(row, col, this.model.getSpot(row, col));
+    }
+
+    /**
+     * Changes what a cell of the grid shows to a character of the board
+     * @param row: the row the cell
+     * @param col: the column of the cell
+     * @param spot: the character of the board
+     * */
+    private void showSpot(int row, int col, char spot){
+        Image image = this.imageOf(spot);
+        this.cellImages[row][col].setImage(image);
+        this.cellImages[row][col].setVisible(image != null);
+        this.cellButtons[row][col].setVisible(image == null);
+        this.shownSpots[row][col] = spot;
     }
 
     /**
      * Sets up the grid based on the dimensions and board of the model. Such that it places, empty spots, green dots,
-     * blue dots, blocks, and a hole that green dots can fall through.
+     * blue dots, blocks, and a hole that green dots can fall through. Only needed when a board is loaded, since the
+     * board size can change.
      * */
     private void setGrid(){
         this.centerGrid = new GridPane();
         this.borderPane.setCenter(this.centerGrid);
 
-        for (int row = 0; row<TiltConfig.getDIM(); row++){
-            for (int col=0; col<TiltConfig.getDIM(); col++){
-                addGridButton(row, col);
+        int dim = this.model.getDIM();
+        this.cellButtons = new Button[dim][dim];
+        this.cellImages = new ImageView[dim][dim];
+        this.shownSpots = new char[dim][dim];
+        for (int row = 0; row<dim; row++){
+            for (int col=0; col<dim; col++){
+                addGridCell(row, col);
+            }
+        }
+    }
+
+    /**
+     * Brings the grid up to date with the board of the model after a move, changing only the cells whose character
+     * changed instead of rebuilding the grid
+     * */
+    private void refreshGrid(){
+        for (int row = 0; row<this.shownSpots.length; row++){
+            for (int col=0; col<this.shownSpots.length; col++){
+                char spot = this.model.getSpot(row, col);
+                if (spot != this.shownSpots[row][col]){
+                    this.showSpot(row, col, spot);
+                }
             }
         }
     }
 
+    /**
+     * Shows the moves left to win in its label, or nothing while the model is still working them out
+     * */
+    private void showMovesLeft(){
+        if (this.movesLeft == null){ // the table was built before the window was started
+            return;
+        }
+        int moves = this.model.getMovesRemaining();
+        if (moves == DistanceTable.UNKNOWN){
+            this.movesLeft.setText("");
+        }else if (moves == DistanceTable.NO_SOLUTION){
+            this.movesLeft.setText("Moves remaining: no solution");
+        }else{
+            this.movesLeft.setText("Moves remaining: " + moves);
+        }
+    }
+
     /**
      * Loads a game from a given file that the user can choose from
      * @param stage: the current stage of the GUI
@@ -303,7 +378,7 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
                 receivedHint = false;
             }
 
-            setGrid();
+            refreshGrid();
             if (this.model.gameOver()){
                 this.message.setText("Game Over! You WON");
                 this.restart.setBackground(Background.fill(Color.LIGHTGREEN));
@@ -316,6 +391,10 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
             this.message.setText("Loaded: " + this.model.getFileName().substring(this.model.getFileName().indexOf("data")));
         }
 
+        if (message.equals(TiltModel.MOVED) || message.equals(TiltModel.LOADED) || message.equals(TiltModel.DISTANCES)){
+            this.showMovesLeft();
+        }
+
         if (message.equals(TiltModel.FAILED_LOAD)){
             this.message.setText("Failed to Load a file");
         }
@@ -324,6 +403,22 @@ public class TiltGUI extends Application implements Observer<TiltModel, String>
             this.message.setText("Invalid move, blue dots cant fall through the hole");
         }
 
+        if (message.equals(TiltModel.MOVED) || message.equals(TiltModel.LOADED)){ // a tilt or load stops a playback
+            this.play.setText(this.model.isPlaying() ? "Pause" : "Play");
+        }
+
+        if (message.equals(TiltModel.PLAYING)){
+            this.message.setText("Playing the solution");
+            this.play.setText("Pause");
+        }
+
+        if (message.equals(TiltModel.PAUSED)){
+            if (!this.model.gameOver()){
+                this.message.setText("Paused");
+            }
+            this.play.setText("Play");
+        }
+
         if (message.equals(TiltModel.FAILED_HINT)){
             this.message.setText("No Solution Possible");
         }
@@ -0,0 +1,387 @@
+package puzzles.tilt.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.EncodableConfiguration;
+
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.function.Consumer;
+
+/**
+ * Holds a configuration of the tilt puzzle for boards of up to 8x8, where the green dots and the blue dots are each a
+ * single long with one bit per spot (bit = row * 8 + col). Blockers and the hole never move, so they are kept as masks
+ * in a layout shared by every configuration of the same board. A tilt shifts every dot one spot at a time with a
+ * handful of bitwise operations until nothing can move, so no arrays are touched at all.
+ * Larger boards have to use {@link TiltConfig}, which solves to the exact same paths.
+ * @author Alex Lee
+ * */
+public class TiltBitboardConfig implements EncodableConfiguration {
+    /** the largest board that fits in a long */
+    public static final int MAX_DIM = 8;
+
+    /** the bits of the spots in the first column */
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+    /** the bits of the spots in the last column of the long (column 7) */
+    private static final long LAST_COLUMN = FIRST_COLUMN << 7;
+    /** the directions the board can be tilted in, in the order the neighbors are given */
+    private static final char[] DIRECTIONS = {'N', 'S', 'E', 'W'};
+
+    /**
+     * The parts of a board that never change
+     * @param dim: the number of rows and columns of the board
+     * @param inside: the bits of every spot on the board
+     * @param blockers: the bits of the blockers
+     * @param hole: the bit of the hole
+     * */
+    private record Layout(int dim, long inside, long blockers, long hole) {}
+
+    /** the parts of the board shared with every other configuration of it */
+    private final Layout layout;
+    /** the spots holding a green dot */
+    private final long green;
+    /** the spots holding a blue dot */
+    private final long blue;
+
+    /**
+     * Creates the bitboard version of a configuration
+     * @param config: the configuration to copy
+     * @throws IllegalArgumentException: if the board is larger than 8x8
+     * */
+    public TiltBitboardConfig(TiltConfig config){
+        int dim = config.getDIM();
+        if (dim > MAX_DIM){
+            throw new IllegalArgumentException("A " + dim + "x" + dim + " board does not fit in a bitboard");
+        }
+
+        long inside = 0, blockers = 0, hole = 0, green = 0, blue = 0;
+        for (int row=0; row<dim; row++){
+            for (int col=0; col<dim; col++){
+                long bit = 1L << (row * MAX_DIM + col);
+                inside |= bit;
+                switch (config.getSpot(row, col)) {
+                    case '*' -> blockers |= bit;
+                    case 'O' -> hole |= bit;
+                    case 'G' -> green |= bit;
+                    case 'B' -> blue |= bit;
+                }
+            }
+        }
+        this.layout = new Layout(dim, inside, blockers, hole);
+        this.green = green;
+        this.blue = blue;
+    }
+
+    /**
+     * A private constructor used to create neighbors of a configuration
+     * @param layout: the layout of the board
+     * @param green: the spots holding a green dot
+     * @param blue: the spots holding a blue dot
+     * */
+    private TiltBitboardConfig(Layout layout, long green, long blue){
+        this.layout = layout;
+        this.green = green;
+        this.blue = blue;
+    }
+
+    /**
+     * Gets the character at a spot on the board
+     * @param row: the row of the spot
+     * @param col: the column of the spot
+     * @return the character at the given row and column of the board
+     * */
+    public char getSpot(int row, int col) {
+        long bit = 1L << (row * MAX_DIM + col);
+        if ((this.green & bit) != 0){
+            return 'G';
+        }else if ((this.blue & bit) != 0){
+            return 'B';
+        }else if ((this.layout.blockers() & bit) != 0){
+            return '*';
+        }else if ((this.layout.hole() & bit) != 0){
+            return 'O';
+        }
+        return '.';
+    }
+
+    /**
+     * Tilts the board in a given direction
+     * @param dir: the direction of the tilt (N = north, S = south, E = east, W = west)
+     * @return the tilted configuration (this configuration if nothing moved), or null if a blue dot fell through the
+     * hole or the direction is unknown
+     * */
+    public TiltBitboardConfig getTiltConfig(char dir){
+        return switch (dir) {
+            case 'N', 'S', 'E', 'W' -> this.tilt(dir);
+            default -> null;
+        };
+    }
+
+    /**
+     * Moves every spot in a set one step in a direction, dropping any that would leave the board
+     * @param spots: the spots being moved
+     * @param dir: the direction of the step (N, S, E or W)
+     * @return the spots one step over
+     * */
+    private long step(long spots, char dir){
+        long moved = switch (dir) {
+            case 'N' -> spots >>> MAX_DIM;
+            case 'S' -> spots << MAX_DIM;
+            case 'E' -> (spots & ~LAST_COLUMN) << 1;
+            default -> (spots & ~FIRST_COLUMN) >>> 1;
+        };
+        return moved & this.layout.inside();
+    }
+
+    /**
+     * Moves every spot in a set one step back against a direction (the opposite of step)
+     * @param spots: the spots being moved
+     * @param dir: the direction of the step being undone (N, S, E or W)
+     * @return the spots one step back
+     * */
+    private static long back(long spots, char dir){
+        return switch (dir) {
+            case 'N' -> spots << MAX_DIM;
+            case 'S' -> spots >>> MAX_DIM;
+            case 'E' -> spots >>> 1;
+            default -> spots << 1;
+        };
+    }
+
+    /**
+     * Tilts every dot in a direction. Each round, every dot with an open spot in front of it moves forward one spot at
+     * the same time, and the rounds stop once nothing can move. A dot stopped by another dot moves into its spot on a
+     * later round, so the dots end up exactly where sliding them one at a time would leave them. Green dots that reach
+     * the hole are removed, and a blue dot that reaches it makes the tilt invalid.
+     * @param dir: the direction of the tilt (N, S, E or W)
+     * @return the tilted configuration (this configuration if nothing moved), or null if a blue dot fell through the
+     * hole
+     * */
+    private TiltBitboardConfig tilt(char dir){
+        long hole = this.layout.hole();
+        long green = this.green;
+        long blue = this.blue;
+        boolean moved = false;
+
+        while (true){
+            long open = this.layout.inside() & ~(green | blue | this.layout.blockers()); // the hole is open
+            long greenTo = this.step(green, dir) & open;
+            long blueTo = this.step(blue, dir) & open;
+            if ((blueTo & hole) != 0){ // invalid move
+                return null;
+            }
+            if ((greenTo | blueTo) == 0){
+                break;
+            }
+            green = (green & ~back(greenTo, dir)) | (greenTo & ~hole);
+            blue = (blue & ~back(blueTo, dir)) | blueTo;
+            moved = true;
+        }
+
+        return moved ? new TiltBitboardConfig(this.layout, green, blue) : this;
+    }
+
+    /**
+     * Checks to see if the current configuration of is the solution to the project.
+     * A solution is only a solution when everything single green dot falls through the hole
+     * @return true if the current state is a solution, false otherwise
+     * */
+    @Override
+    public boolean isSolution() {
+        return this.green == 0;
+    }
+
+    /**
+     * Estimates the moves left before every green dot has fallen through the hole, for use as an A* heuristic.
+     * A tilt only drops a green dot into the hole if the dot is already in the hole's row or column, so a board with a
+     * green dot outside of both needs at least 2 more moves, and any other unsolved board at least 1. The count of
+     * green dots is not used, since a single tilt can drop several of them at once.
+     * @return a lower bound on the number of moves left (0 if the board is solved)
+     * */
+    public int estimateMovesLeft() {
+        if (this.green == 0){
+            return 0;
+        }
+        long hole = this.layout.hole();
+        if (hole == 0){
+            return 2;
+        }
+        int spot = Long.numberOfTrailingZeros(hole);
+        long inLine = (0xFFL << (spot - spot % MAX_DIM)) | (FIRST_COLUMN << (spot % MAX_DIM));
+        return (this.green & ~inLine) != 0 ? 2 : 1;
+    }
+
+    /**
+     * Gets the neighbors of the current configuration. Neighbors include the board being moved up, down, right, left
+     * (If a blue piece falls through the hole, or the tilt doesn't move anything, a neighbor is returned as null and
+     * is ignored)
+     * @return a queue of the neighbors
+     * */
+    @Override
+    public Collection<Configuration> getNeighbors() {
+        Collection<Configuration> queue = new LinkedList<>();
+        for (char dir: DIRECTIONS){
+            TiltBitboardConfig config = this.tilt(dir);
+            queue.add(config == this ? null : config);
+        }
+        return queue;
+    }
+
+    /**
+     * Hands the board tilted up, down, right and left to a visitor, skipping the tilts that don't move anything or
+     * that drop a blue piece through the hole
+     * @param visitor: called once with each neighbor
+     * */
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> visitor) {
+        for (char dir: DIRECTIONS){
+            TiltBitboardConfig config = this.tilt(dir);
+            if (config != null && config != this){
+                visitor.accept(config);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of bytes a configuration is encoded into. Boards of up to 4x4 only use the low 32 bits of each
+     * color, so both colors fit in a single long; anything larger takes the two longs as they are.
+     * @return the width of an encoded configuration
+     * */
+    @Override
+    public int getEncodedSize() {
+        return this.layout.dim() <= 4 ? Long.BYTES : 2 * Long.BYTES;
+    }
+
+    /**
+     * Writes the green and blue dots into an array
+     * @param dest: the array being written into
+     * @param offset: the index of the first byte to write
+     * */
+    @Override
+    public void encode(byte[] dest, int offset) {
+        if (this.layout.dim() <= 4){
+            writeLong(this.encode(), dest, offset);
+        }else{
+            writeLong(this.green, dest, offset);
+            writeLong(this.blue, dest, offset + Long.BYTES);
+        }
+    }
+
+    /**
+     * Rebuilds a configuration of the same board from its encoded dots
+     * @param src: the array holding the encoded configuration
+     * @param offset: the index of its first byte
+     * @return the decoded configuration
+     * */
+    @Override
+    public TiltBitboardConfig decode(byte[] src, int offset) {
+        if (this.layout.dim() <= 4){
+            return this.decode(readLong(src, offset));
+        }
+        return new TiltBitboardConfig(this.layout, readLong(src, offset), readLong(src, offset + Long.BYTES));
+    }
+
+    /**
+     * Packs the green dots into the high half of a long and the blue dots into the low half (boards of up to 4x4)
+     * @return the encoded configuration
+     * */
+    @Override
+    public long encode() {
+        if (this.layout.dim() > 4){
+            return EncodableConfiguration.super.encode();
+        }
+        return (this.green << 32) | this.blue;
+    }
+
+    /**
+     * Rebuilds a configuration of the same board from the long returned by encode()
+     * @param code: the encoded configuration
+     * @return the decoded configuration
+     * */
+    @Override
+    public TiltBitboardConfig decode(long code) {
+        if (this.layout.dim() > 4){
+            return (TiltBitboardConfig) EncodableConfiguration.super.decode(code);
+        }
+        return new TiltBitboardConfig(this.layout, code >>> 32, code & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes a long into an array, most significant byte first
+     * @param value: the long being written
+     * @param dest: the array being written into
+     * @param offset: the index of the first byte to write
+     * */
+    private static void writeLong(long value, byte[] dest, int offset){
+        for (int i=offset + Long.BYTES - 1; i>=offset; i--){
+            dest[i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    /**
+     * Reads a long out of an array, most significant byte first
+     * @param src: the array being read
+     * @param offset: the index of the first byte
+     * @return the long that was read
+     * */
+    private static long readLong(byte[] src, int offset){
+        long value = 0;
+        for (int i=offset; i<offset + Long.BYTES; i++){
+            value = (value << 8) | (src[i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * checks to see if two configurations are the same
+     * Two configurations are the same if they are of the same board and their dots are on the same spots
+     * @return true if they are the same, false otherwise
+     * */
+    @Override
+    public boolean equals(Object other) {
+        boolean result = false;
+        if (other instanceof TiltBitboardConfig tilt){
+            result = this.green == tilt.green && this.blue == tilt.blue && this.layout.equals(tilt.layout);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the hashcode of the object, mixing the green and blue dots together
+     * @return the hashcode
+     * */
+    @Override
+    public int hashCode() {
+        long mixed = (this.green * 0x9E3779B97F4A7C15L) ^ this.blue;
+        mixed *= 0xBF58476D1CE4E5B9L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    /**
+     * Converts the configuration into a string representation of the object.
+     * String representation of an object is the board itself
+     * @return the board in string form
+     * */
+    @Override
+    public String toString() {
+        StringBuilder printStatement = new StringBuilder();
+        this.render(printStatement);
+        return printStatement.toString();
+    }
+
+    /**
+     * Appends the board, in the same form as toString, to a builder
+     * @param out: the builder being appended to
+     * */
+    @Override
+    public void render(StringBuilder out) {
+        out.append('\n');
+
+        for (int row=0; row<this.layout.dim(); row++){
+            for (int col=0; col<this.layout.dim(); col++){
+                out.append(this.getSpot(row, col)).append(' ');
+            }
+            out.append('\n');
+        }
+    }
+}
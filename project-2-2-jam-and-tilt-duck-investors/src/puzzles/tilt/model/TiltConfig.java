@@ -1,6 +1,7 @@
 package puzzles.tilt.model;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.EncodableConfiguration;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -8,6 +9,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.function.Consumer;
 
 /**
  * Holds a configuration of the tilt puzzle in which the goal of the game is to tilt the board in such a way that a series
@@ -19,7 +21,7 @@ import java.util.LinkedList;
  * @author Alex Lee
  * */
 
-public class TiltConfig implements Configuration {
+public class TiltConfig implements EncodableConfiguration {
     // is assumed to be a square
     /*
     * G --> green slider
@@ -29,27 +31,56 @@ public class TiltConfig implements Configuration {
     * O --> a hole that all green sliders can go through (can only be one, but can be anywhere)
     * */
 
+    /** the directions the board can be tilted in, in the order the neighbors are given */
+    private static final char[] DIRECTIONS = {'N', 'S', 'E', 'W'};
+
+    /** the size of the board and where its blockers and hole are, shared by every configuration of the board */
+    private final TiltGeometry geometry;
+    /** the board of the pieces, stored row after row in a flat array of characters (spot = row * DIM + col) */
+    private final char[] board;
     /**
-     * the number of rows and columns that reside in the Board. Every board is a square (row=column)
+     * the Zobrist hash of the board, the xor of a random number for every green and blue dot and the spot it is on.
+     * It is worked out once when a board is loaded and then updated as each dot slides, never recomputed.
      * */
-    private static int DIM;
-    /** the board of the pieces, which is represented by a 2d array of characters */
-    private final char[][] board;
+    private final long hash;
 
     /**
-     * Gets the 2d array representing the board
+     * Gets a copy of the board as a 2d array
      * @return the 2d array of characters
      * */
     public char[][] getBoard() {
-        return this.board;
+        int dim = this.geometry.getDIM();
+        char[][] rows = new char[dim][dim];
+        for (int row=0; row<dim; row++){
+            System.arraycopy(this.board, row * dim, rows[row], 0, dim);
+        }
+        return rows;
+    }
+
+    /**
+     * Gets the character at a spot on the board
+     * @param row: the row of the spot
+     * @param col: the column of the spot
+     * @return the character at the given row and column of the board
+     * */
+    public char getSpot(int row, int col) {
+        return this.board[row * this.geometry.getDIM() + col];
     }
 
     /**
      * Gets the dimensions of the board. Height and width are assumed to be the same
      * @return the dimensions of the board as a single int
      * */
-    public static int getDIM() {
-        return DIM;
+    public int getDIM() {
+        return this.geometry.getDIM();
+    }
+
+    /**
+     * Gets the geometry of the board, which is shared by every configuration of it
+     * @return the geometry of the board
+     * */
+    public TiltGeometry getGeometry() {
+        return this.geometry;
     }
 
     /**
@@ -57,10 +88,42 @@ public class TiltConfig implements Configuration {
      * @param fileName: the file that holds the initial configurations information for the board
      * */
     public TiltConfig(String fileName) throws IOException {
+        this(readBoard(fileName));
+    }
+
+    /**
+     * The constructor of a board that is already in memory, such as one that was generated
+     * @param rows: the characters of the board, one array per row (every row as long as there are rows)
+     * */
+    public TiltConfig(char[][] rows){
+        int dim = rows.length;
+        this.board = new char[dim * dim];
+        for (int row=0; row<dim; row++){
+            System.arraycopy(rows[row], 0, this.board, row * dim, dim);
+        }
+        this.geometry = new TiltGeometry(dim, this.board);
+
+        long startHash = 0;
+        for (int spot=0; spot<this.board.length; spot++){
+            if (this.board[spot] == 'G' || this.board[spot] == 'B'){
+                startHash ^= zobrist(spot, this.board[spot]);
+            }
+        }
+        this.hash = startHash;
+    }
+
+    /**
+     * Reads the characters of a board from a file, which holds the size of the board followed by one line per row
+     * with a space between each spot
+     * @param fileName: the file that holds the board
+     * @return the characters of the board, one array per row
+     * @throws IOException: if the file can not be read
+     * */
+    private static char[][] readBoard(String fileName) throws IOException {
         BufferedReader input = new BufferedReader(new FileReader(fileName));
 
-        DIM = Integer.parseInt(input.readLine());
-        this.board = new char[DIM][DIM];
+        int dim = Integer.parseInt(input.readLine());
+        char[][] rows = new char[dim][dim];
 
         String line;
         int row=-1;
@@ -68,35 +131,39 @@ public class TiltConfig implements Configuration {
             row++;
             String[] spots = line.split(" ");
             for (int col=0; col<spots.length; col++){
-                this.board[row][col] = spots[col].charAt(0);
+                rows[row][col] = spots[col].charAt(0);
             }
         }
         input.close();
+        return rows;
     }
 
     /**
      * A private constructor used to crete neighbors of a configuration.
+     * @param geometry: the geometry of the board
      * @param board: the new board state
+     * @param hash: the Zobrist hash of the new board
      * */
-    private TiltConfig(char[][] board){
-        this.board = board.clone();
+    private TiltConfig(TiltGeometry geometry, char[] board, long hash){
+        this.geometry = geometry;
+        this.board = board;
+        this.hash = hash;
     }
 
+    /**
+     * Tilts the board in a given direction
+     * @param dir: the direction of the tilt (N = north, S = south, E = east, W = west)
+     * @return the tilted configuration (this configuration if nothing moved), or null if a blue dot fell through the
+     * hole or the direction is unknown
+     * */
     public TiltConfig getTiltConfig(char dir){
-        TiltConfig config = null;
-        char[][] newBoard = null;
-        switch (dir) {
-            case 'N' -> newBoard = moveNorth(copyBoard());
-            case 'S' -> newBoard = moveSouth(copyBoard());
-            case 'E' -> newBoard = moveEast(copyBoard());
-            case 'W' -> newBoard = moveWest(copyBoard());
-        }
-
-        if (newBoard != null){
-            config = new TiltConfig(newBoard);
-        }
-
-        return config;
+        return switch (dir) {
+            case 'N' -> this.tilt(-1, 0);
+            case 'S' -> this.tilt(1, 0);
+            case 'E' -> this.tilt(0, 1);
+            case 'W' -> this.tilt(0, -1);
+            default -> null;
+        };
     }
 
     /**
@@ -106,245 +173,218 @@ public class TiltConfig implements Configuration {
      * */
     @Override
     public boolean isSolution() {
-        boolean result = true;
-        for (char[] row: this.board){
-            for (char col: row){
-                if (col == 'G'){
-                    result = false;
-                    break;
-                }
+        for (char spot: this.board){
+            if (spot == 'G'){
+                return false;
             }
         }
-        return result;
+        return true;
     }
 
     /**
-     * copy's the contents of the configurations board as to avoid states referencing the same states board
-     * @return the copied board
+     * Estimates the moves left before every green dot has fallen through the hole, for use as an A* heuristic.
+     * A tilt only drops a green dot into the hole if the dot is already in the hole's row or column, so a board with a
+     * green dot outside of both needs at least 2 more moves, and any other unsolved board at least 1. The count of
+     * green dots is not used, since a single tilt can drop several of them at once.
+     * @return a lower bound on the number of moves left (0 if the board is solved)
      * */
-    private char[][] copyBoard(){
-        char[][] newBoard = new char[DIM][DIM];
-        for (int row=0; row<newBoard.length; row++){
-            System.arraycopy(this.board[row], 0, newBoard[row], 0, newBoard[row].length);
+    public int estimateMovesLeft() {
+        int dim = this.geometry.getDIM();
+        int hole = this.geometry.getHole();
+        int estimate = 0;
+        for (int spot=0; spot<this.board.length; spot++){
+            if (this.board[spot] == 'G'){
+                if (hole < 0 || (spot / dim != hole / dim && spot % dim != hole % dim)){
+                    return 2;
+                }
+                estimate = 1;
+            }
         }
-        return newBoard;
+        return estimate;
     }
 
     /**
-     * Checks if a spot can move, in a particular direction, or will fall off the edge if moved
-     * (assumes that the spot is only moving up or down aka dirRow=0 or dirCol=0)
-     * @param row: the current row of the spot
-     * @param col: the current column of the spot
-     * @param dirRow: the amount the row changes every movement
-     * @param dirCol: the amount the column changes every movement
-     * @param board: the board the spot resides on
-     * @return true if the spot won't fall off the edge, false otherwise
+     * Gets the random number a dot contributes to the Zobrist hash while sitting on a spot. The numbers come from
+     * running the spot and color through the SplitMix64 mixer, so there is no table that depends on the board size.
+     * @param spot: the index of the spot in the flat board
+     * @param dot: the dot on the spot (G or B)
+     * @return the number to xor into the hash
      * */
-    private boolean canMove(int row, int col, int dirRow, int dirCol, char[][] board){
-        //row+dirRow < board.length - 1 && row+dirRow > 0 && col+dirCol < board[row].length - 1 && col+dirCol > 0
-        boolean result = true;
-
-        if (dirRow == 0){
-            // we must be moving the column
-            int nextColumn = col+dirCol;
-            result = (nextColumn <= board[row].length - 1 && nextColumn >= 0);
-        }else{
-            // we must be moving the row
-            int nextRow = row+dirRow;
-            result = (nextRow <= board.length - 1 && nextRow >= 0);
-        }
-
-        return result;
+    private static long zobrist(int spot, char dot){
+        long z = (spot * 2L + (dot == 'B' ? 1 : 0) + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 
     /**
-     * moves a spot until it either falls through a hole, reaches the edge of the board, or collides with an unmovable
-     * object. Movement will stop if a Green (G) dot falls through the hole (O).
-     * Assumes, the object is either a green dot (G) or a blue dot (B)
-     * (will return null if a blue dot (B) falls through a hole (O))
-     * @param row: the current row of the spot
-     * @param col: the current column of the spot
+     * Tilts every movable piece (green dots (G) and blue dots (B)) in a direction. Pieces are slid one at a time,
+     * starting with the ones closest to the side being tilted towards, until they either fall through the hole, reach
+     * the edge of the board, or collide with a blocker or another dot. The hash of the new board is updated as each
+     * piece lands, and a flag records whether anything moved at all.
+     * (assumes that the board is only tilted up, down, left or right aka dirRow=0 or dirCol=0)
      * @param dirRow: the amount the row changes every movement
      * @param dirCol: the amount the column changes every movement
-     * @param board: the board the spot resides on
-     * @return the board after the movement of a piece was completed
+     * @return the tilted configuration (this configuration if nothing moved), or null if a blue dot fell through the
+     * hole
      * */
-    private char[][] move(int row, int col, int dirRow, int dirCol, char[][] board){
-        char spot = board[row][col];
-
-        int startRow = row;
-        int startCol = col;
-
-        while (canMove(row, col, dirRow, dirCol, board)){
-            startRow = row;
-            startCol = col;
-
-            row += dirRow;
-            col += dirCol;
-            char newSpot = board[row][col];
-
-            if (newSpot == '*' || newSpot == 'B' || newSpot == 'G'){ // something is in the way
-                break;
-            }
+    private TiltConfig tilt(int dirRow, int dirCol){
+        int dim = this.geometry.getDIM();
+        char[] newBoard = this.board.clone();
+        long newHash = this.hash;
+        boolean moved = false;
+
+        for (int line=0; line<dim; line++){ // how far the spots are from the side being tilted towards
+            for (int across=0; across<dim; across++){
+                int row = dirRow == 0 ? across : (dirRow < 0 ? line : dim - 1 - line);
+                int col = dirCol == 0 ? across : (dirCol < 0 ? line : dim - 1 - line);
+                int from = row * dim + col;
+                char spot = newBoard[from];
+                if (spot != 'G' && spot != 'B'){
+                    continue;
+                }
 
-            if (newSpot == 'O' && spot == 'B'){ // invalid move
-                return null;
-            }
+                int to = from;
+                boolean fell = false;
+                while (row + dirRow >= 0 && row + dirRow < dim && col + dirCol >= 0 && col + dirCol < dim){
+                    row += dirRow;
+                    col += dirCol;
+                    char newSpot = newBoard[row * dim + col];
+
+                    if (newSpot == '*' || newSpot == 'B' || newSpot == 'G'){ // something is in the way
+                        break;
+                    }
+                    if (newSpot == 'O'){
+                        if (spot == 'B'){ // invalid move
+                            return null;
+                        }
+                        fell = true; // the green piece falls through
+                        break;
+                    }
+                    to = row * dim + col;
+                }
 
-            if (newSpot == 'O' && spot == 'G'){ // the piece should fall through
-                board[startRow][startCol] = '.';
-                break;
+                if (fell){
+                    newBoard[from] = '.';
+                    newHash ^= zobrist(from, spot);
+                    moved = true;
+                }else if (to != from){
+                    newBoard[from] = '.';
+                    newBoard[to] = spot;
+                    newHash ^= zobrist(from, spot) ^ zobrist(to, spot);
+                    moved = true;
+                }
             }
-
-            // if no problems arise, swap the spots and keep going
-            board[row][col] = spot;
-            board[startRow][startCol] = '.';
         }
 
-        return board;
+        return moved ? new TiltConfig(this.geometry, newBoard, newHash) : this;
     }
 
     /**
-     * Moves every movable piece upward; movable pieces consisting of green dots (G) and blue dots (B)
-     * (If a blue piece falls through the hole, a move becomes invalid and returns null)
-     * @param board: the board of the configuration that has its pieces moved
-     * @return the new state of the board after everything has been moved
+     * Gets the neighbors of the current configuration. Neighbors include the board being moved up, down, right, left
+     * (If a blue piece falls through the hole, or the tilt doesn't move anything, a neighbor is returned as null and
+     * is ignored)
+     * @return a queue of the neighbors
      * */
-    private char[][] moveNorth(char[][] board){
-        for (int row=0; row<board.length; row++){
-            for (int col=0; col<board[row].length; col++){
-                if (board[row][col] == 'G' || board[row][col] == 'B'){
-                    board = move(row, col, -1, 0, board);
-                    if (board == null){return null;}
-                }
-            }
+    @Override
+    public Collection<Configuration> getNeighbors() {
+        Collection<Configuration> queue = new LinkedList<>();
+        for (char dir: DIRECTIONS){
+            TiltConfig config = this.getTiltConfig(dir);
+            queue.add(config == this ? null : config);
         }
-        return board;
+        return queue;
     }
 
     /**
-     * Moves every movable piece downward; movable pieces consisting of green dots (G) and blue dots (B)
-     * (If a blue piece falls through the hole, a move becomes invalid and returns null)
-     * @param board: the board of the configuration that has its pieces moved
-     * @return the new state of the board after everything has been moved
+     * Hands the board tilted up, down, right and left to a visitor, skipping the tilts that don't move anything or
+     * that drop a blue piece through the hole
+     * @param visitor: called once with each neighbor
      * */
-    private char[][] moveSouth(char[][] board){
-        // same as North but start at the end and dir is -1
-        for (int row=board.length - 1; row >=0; row--){
-            for (int col=board[row].length - 1; col >=0; col--){
-                if (board[row][col] == 'G' || board[row][col] == 'B'){
-                    board = move(row, col, 1, 0, board);
-                    if (board == null){return null;}
-                }
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> visitor) {
+        for (char dir: DIRECTIONS){
+            TiltConfig config = this.getTiltConfig(dir);
+            if (config != null && config != this){
+                visitor.accept(config);
             }
         }
-        return board;
     }
 
     /**
-     * Moves every movable piece right; movable pieces consisting of green dots (G) and blue dots (B)
-     * (If a blue piece falls through the hole, a move becomes invalid and returns null)
-     * @param board: the board of the configuration that has its pieces moved
-     * @return the new state of the board after everything has been moved
+     * Gets the number of bytes a configuration is encoded into. Each spot takes 2 bits (empty, green or blue), since
+     * blockers and the hole never move and are copied from the geometry of the board.
+     * @return the width of an encoded configuration
      * */
-    private char[][] moveEast(char[][] board){
-        for (int row=board.length - 1; row >=0; row--){
-            for (int col=board[row].length - 1; col >=0; col--){
-                if (board[col][row] == 'G' || board[col][row] == 'B'){
-                    board = move(col, row, 0, 1, board);
-                    if (board == null){return null;}
-                }
-            }
-        }
-        return board;
+    @Override
+    public int getEncodedSize() {
+        return (this.board.length * 2 + 7) / 8;
     }
 
     /**
-     * Moves every movable piece left; movable pieces consisting of green dots (G) and blue dots (B)
-     * (If a blue piece falls through the hole, a move becomes invalid and returns null)
-     * @param board: the board of the configuration that has its pieces moved
-     * @return the new state of the board after everything has been moved
+     * Writes the position of every green and blue dot into an array, 2 bits per spot in row order
+     * @param dest: the array being written into
+     * @param offset: the index of the first byte to write
      * */
-    private char[][] moveWest(char[][] board){
-        for (int row=0; row<board.length; row++){
-            for (int col=0; col<board[row].length; col++){
-                if (board[col][row] == 'G' || board[col][row] == 'B'){
-                    board = move(col, row, 0, -1, board);
-                    if (board == null){return null;}
-                }
-            }
+    @Override
+    public void encode(byte[] dest, int offset) {
+        Arrays.fill(dest, offset, offset + this.getEncodedSize(), (byte) 0);
+        for (int spot=0; spot<this.board.length; spot++){
+            int code = switch (this.board[spot]) {
+                case 'G' -> 1;
+                case 'B' -> 2;
+                default -> 0;
+            };
+            dest[offset + (spot >> 2)] |= (byte) (code << ((spot & 3) * 2));
         }
-        return board;
     }
 
     /**
-     * Gets the neighbors of the current configuration. Neighbors include the board being moved up, down, right, left
-     * (If a blue piece falls through the hole, a neighbor is returned as null and is ignored)
-     * @return a queue of the neighbors
+     * Rebuilds a configuration from the encoded dots, taking the blockers and hole from the geometry
+     * @param src: the array holding the encoded configuration
+     * @param offset: the index of its first byte
+     * @return the decoded configuration
      * */
     @Override
-    public Collection<Configuration> getNeighbors() {
-        Collection<Configuration> queue = new LinkedList<>();
-        char[][] tempBoard;
-        // moves everything north
-
-        tempBoard = moveNorth(copyBoard());
-        if (tempBoard != null && !Arrays.deepEquals(tempBoard, this.board)){
-            TiltConfig config = new TiltConfig(tempBoard);
-            queue.add(config);
-        }else{
-            queue.add(null);
-        }
-
-        // move everything south
-        tempBoard = moveSouth(copyBoard());
-        if (tempBoard != null && !Arrays.deepEquals(tempBoard, this.board)){
-            TiltConfig config = new TiltConfig(tempBoard);
-            queue.add(config);
-        }else{
-            queue.add(null);
-        }
-
-        // move everything east
-        tempBoard = moveEast(copyBoard());
-        if (tempBoard != null && !Arrays.deepEquals(tempBoard, this.board)){
-            queue.add(new TiltConfig(tempBoard));
-        }else{
-            queue.add(null);
-        }
-
-        // move everything west
-        tempBoard = moveWest(copyBoard());
-        if (tempBoard != null && !Arrays.deepEquals(tempBoard, this.board)){
-            queue.add(new TiltConfig(tempBoard));
-        }else{
-            queue.add(null);
+    public TiltConfig decode(byte[] src, int offset) {
+        char[] newBoard = new char[this.board.length];
+        long newHash = 0;
+        for (int spot=0; spot<newBoard.length; spot++){
+            int code = (src[offset + (spot >> 2)] >> ((spot & 3) * 2)) & 3;
+            newBoard[spot] = switch (code) {
+                case 1 -> 'G';
+                case 2 -> 'B';
+                default -> this.geometry.getFixed(spot);
+            };
+            if (code != 0){
+                newHash ^= zobrist(spot, newBoard[spot]);
+            }
         }
-
-        return queue;
+        return new TiltConfig(this.geometry, newBoard, newHash);
     }
 
     /**
      * checks to see if two configurations are the same
-     * Two configurations are the same if their boards and dimensions are the same
+     * Two configurations are the same if their boards and dimensions are the same. The cached hashes are compared
+     * first, so the boards themselves are almost only ever compared when the configurations really are equal.
      * @return true if they are the same, false otherwise
      * */
     @Override
     public boolean equals(Object other) {
         boolean result = false;
         if (other instanceof TiltConfig tilt){
-            result = Arrays.deepEquals(this.board, tilt.board);
+            result = this.hash == tilt.hash && Arrays.equals(this.board, tilt.board);
         }
         return result;
     }
 
     /**
-     * Gets the hashcode of the object
+     * Gets the hashcode of the object, folded down from the cached Zobrist hash
      * @return the hashcode
      * */
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(this.board);
+        return (int) (this.hash ^ (this.hash >>> 32));
     }
 
     /**
@@ -354,15 +394,25 @@ public class TiltConfig implements Configuration {
      * */
     @Override
     public String toString() {
-        String printStatement = "\n";
+        StringBuilder printStatement = new StringBuilder();
+        this.render(printStatement);
+        return printStatement.toString();
+    }
 
-        for (char[] row: this.board){
-            for (char col: row){
-                printStatement += col + " ";
+    /**
+     * Appends the board, in the same form as toString, to a builder
+     * @param out: the builder being appended to
+     * */
+    @Override
+    public void render(StringBuilder out) {
+        out.append('\n');
+
+        int dim = this.geometry.getDIM();
+        for (int row=0; row<dim; row++){
+            for (int col=0; col<dim; col++){
+                out.append(this.board[row * dim + col]).append(' ');
             }
-            printStatement += "\n";
+            out.append('\n');
         }
-
-        return printStatement;
     }
 }
@@ -0,0 +1,59 @@
+package puzzles.tilt.model;
+
+/**
+ * The parts of a tilt board that never change while it is being played: its size, and where the blockers and the
+ * hole are. One geometry is created when a board is loaded and is shared by every configuration derived from it, so
+ * boards of different sizes can be loaded and solved at the same time.
+ * @author Alex Lee
+ * */
+public final class TiltGeometry {
+    /** the number of rows and columns on the board. Every board is a square (row=column) */
+    private final int dim;
+    /** the blockers (*) and the hole (O) on each spot, row after row, with every other spot empty (.) */
+    private final char[] fixed;
+    /** the spot of the hole (row * DIM + col), or -1 if the board has no hole */
+    private final int hole;
+
+    /**
+     * Creates the geometry of a board
+     * @param dim: the number of rows and columns on the board
+     * @param board: the spots of the board, row after row (only blockers and the hole are kept)
+     * */
+    TiltGeometry(int dim, char[] board){
+        this.dim = dim;
+        this.fixed = new char[dim * dim];
+        int hole = -1;
+        for (int spot=0; spot<this.fixed.length; spot++){
+            this.fixed[spot] = (board[spot] == '*' || board[spot] == 'O') ? board[spot] : '.';
+            if (board[spot] == 'O'){
+                hole = spot;
+            }
+        }
+        this.hole = hole;
+    }
+
+    /**
+     * Gets the dimensions of the board. Height and width are assumed to be the same
+     * @return the dimensions of the board as a single int
+     * */
+    public int getDIM() {
+        return this.dim;
+    }
+
+    /**
+     * Gets what is fixed on a spot
+     * @param spot: the index of the spot (row * DIM + col)
+     * @return a blocker (*), the hole (O), or an empty spot (.)
+     * */
+    char getFixed(int spot) {
+        return this.fixed[spot];
+    }
+
+    /**
+     * Gets the spot of the hole
+     * @return the index of the hole (row * DIM + col), or -1 if the board has no hole
+     * */
+    int getHole() {
+        return this.hole;
+    }
+}
@@ -2,10 +2,18 @@ package puzzles.tilt.model;
 
 import puzzles.common.Observer;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.DistanceTable;
 import puzzles.common.solver.Solver;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implements the model for the Tilt Puzzle on the principle of MVC. Where this holds the configuration of the puzzle and
@@ -18,9 +26,54 @@ public class TiltModel {
     /** the collection of observers of this model */
     private final List<Observer<TiltModel, String>> observers;
 
-    /** the current configuration */
-    private TiltConfig currentConfig;
-    private final Solver solver;
+    /** the current configuration (read by hint searches running in the background) */
+    private volatile TiltConfig currentConfig;
+
+    /** runs the hint searches requested with requestHint, one at a time, off the thread of the viewers */
+    private final ExecutorService hintSearches;
+    /** hands the result of a background hint search back to the thread the viewers run on */
+    private final Executor notifier;
+    /** the background hint search that was requested last, which may still be running */
+    private Future<?> pendingHint;
+
+    /** the most solved states whose next move is remembered for hints */
+    private static final int HINT_CACHE_CAPACITY = 4096;
+    /**
+     * the next move of every state on the most recently solved paths, least recently used first (a null move means
+     * the state has no solution). Every state on a shortest path is itself solved by the rest of that path, so a
+     * single search answers every hint that follows it.
+     * */
+    private final Map<TiltConfig, TiltConfig> nextMoves;
+
+    /** the most configurations a board may reach for its distance table to be built */
+    private static final int DISTANCE_TABLE_LIMIT = 1 << 20;
+    /** builds the distance table of each loaded board in the background, or null if tables aren't built */
+    private final ExecutorService tableBuilds;
+    /** the distance table build started by the last load, which may still be running */
+    private Future<?> pendingTable;
+    /** the configuration the current board was loaded with, which its distance table is built from */
+    private volatile TiltConfig loadedStart;
+    /** the moves left from every configuration of the current board, or null until it is built */
+    private volatile DistanceTable distances;
+    /** the boards whose distance tables were given up on for reaching too many configurations, so they aren't rebuilt */
+    private final Set<TiltConfig> oversizedBoards;
+
+    /** the time between moves of a playback when no other speed is set, in milliseconds */
+    public static final long DEFAULT_PLAYBACK_DELAY = 500;
+    /** searches for the path of each playback, apart from the hint searches so a hint never waits behind one */
+    private final ExecutorService playbackSearches;
+    /** times the moves of a playback */
+    private final ScheduledExecutorService playbackTimer;
+    /** the search for the path of a playback that is about to start, if it is still running */
+    private Future<?> playbackSearch;
+    /** the solution being played back, or null when there is no playback */
+    private List<Configuration> playbackPath;
+    /** the index in the playback path of the configuration currently shown */
+    private int playbackStep;
+    /** the timer making the moves of the playback, or null while paused */
+    private ScheduledFuture<?> playbackTicks;
+    /** the time between moves of a playback, in milliseconds */
+    private long playbackDelay;
 
     /** keeps track of the original file in case the board is reset */
     private String fileName;
@@ -42,6 +95,14 @@ public class TiltModel {
     /** is used to notify viewers that the user has quit */
     public static final String QUIT = "QUIT";
 
+    /** is used to notify viewers that the moves remaining can now be looked up for the loaded board */
+    public static final String DISTANCES = "DISTANCES";
+
+    /** is used to notify viewers that a playback has started or resumed */
+    public static final String PLAYING = "PLAYING";
+    /** is used to notify viewers that a playback has been paused, stopped or has finished */
+    public static final String PAUSED = "PAUSED";
+
     /** is used to notify viewers that a particular board failed to load (should result in the game ending) */
     public static final String FAILED_LOAD = "FAILED_LOAD";
 
@@ -55,11 +116,17 @@ public class TiltModel {
      * board
      * @param fileName: the name of the file used to load the board
      * */
-    public void loadFile(String fileName){
+    public synchronized void loadFile(String fileName){
         // alert = "LOADED"
         try{
+            this.cancelHint();
+            this.stopPlayback();
             this.currentConfig = new TiltConfig(fileName);
             this.fileName = fileName;
+            synchronized (this.nextMoves){
+                this.nextMoves.clear(); // the board (or the file behind it) may have changed
+            }
+            this.buildDistances(this.currentConfig);
             this.alertObservers(LOADED);
         }catch (Exception e){
             this.alertObservers(FAILED_LOAD);
@@ -68,7 +135,12 @@ public class TiltModel {
     }
 
     /** used to alert all viewers that a player has quit the game */
-    public void quit(){
+    public synchronized void quit(){
+        this.cancelHint();
+        this.stopPlayback();
+        if (this.pendingTable != null){
+            this.pendingTable.cancel(true);
+        }
         this.alertObservers(QUIT);
     }
 
@@ -76,10 +148,12 @@ public class TiltModel {
      * through the hole) then all viewers are notified of a failed_move, otherwise, notified of the move
      * @param dir: a char of the desired direction (n = north, s = south, e = east, w = west)]
      */
-     public void makeTilt(char dir){
+     public synchronized void makeTilt(char dir){
         // alert = "MOVED"
         TiltConfig tester = this.currentConfig.getTiltConfig(dir);
         if (tester != null){
+            this.cancelHint();
+            this.stopPlayback();
             this.currentConfig = tester;
             this.alertObservers(MOVED);
         }else{
@@ -102,45 +176,308 @@ public class TiltModel {
      * @return the character at the given row and column of the board
      * */
     public char getSpot(int row, int col){
-        return this.currentConfig.getBoard()[row][col];
+        return this.currentConfig.getSpot(row, col);
+    }
+
+    /**
+     * Gets the dimensions of the loaded board. Height and width are assumed to be the same
+     * @return the dimensions of the board as a single int
+     * */
+    public int getDIM(){
+        return this.currentConfig.getDIM();
     }
 
     /**
      * Gets the hint of the board, using a BFS search, which will than alert every viewer of the hint by giving
-     * the constant HINT followed by a space than (north, south, east, west)
+     * the constant HINT followed by a space than (north, south, east, west).
+     * The board is only searched when the current configuration isn't on a path already found, so following the
+     * hints only searches once.
      *  */
     public void getHint(){
         // alert = "HINT"
-        List<Configuration> configs = this.currentConfig.getNeighbors().stream().toList();
+        this.alertObservers(this.hintFor(this.currentConfig));
+    }
+
+    /**
+     * Gets the hint of the board like getHint, but searches on a background thread so the viewers are never held up.
+     * The HINT or FAILED_HINT alert is handed to the notifier of the model, so it reaches the viewers on their own
+     * thread. Tilting, loading, resetting or asking for another hint cancels a search still running, and a hint for
+     * a board that has changed since is never alerted.
+     * */
+    public synchronized void requestHint(){
+        this.cancelHint();
+        TiltConfig config = this.currentConfig; // read once, so the search and the check below see the same board
+        this.pendingHint = this.hintSearches.submit(() -> {
+            String hint = this.hintFor(config);
+            this.notifier.execute(() -> {
+                synchronized (this){ // so the board can't be tilted between the check and the alert
+                    if (this.currentConfig == config){
+                        this.alertObservers(hint);
+                    }
+                }
+            });
+        });
+    }
+
+    /** cancels the background hint search requested last, interrupting it if it is still running */
+    private void cancelHint(){
+        if (this.pendingHint != null){
+            this.pendingHint.cancel(true);
+            this.pendingHint = null;
+        }
+    }
+
+    /**
+     * Works out the hint for a configuration
+     * @param config: the configuration needing a hint
+     * @return HINT followed by a space and the direction (north, south, east, west), or FAILED_HINT
+     * */
+    private String hintFor(TiltConfig config){
+        List<Configuration> configs = config.getNeighbors().stream().toList();
         //north, then south, then east, then west
-        List<Configuration> path = solver.BFSSearch(this.currentConfig);
+        TiltConfig next = this.nextMove(config);
+        if (next == null){
+            return FAILED_HINT;
+        }
 
         if (configs.get(0) != null){
-            if (configs.get(0).equals(path.get(1))){
-                this.alertObservers(HINT + " north");
-                return;
+            if (configs.get(0).equals(next)){
+                return HINT + " north";
             }
         }
         if (configs.get(1) != null){
-            if (configs.get(1).equals(path.get(1))){
-                this.alertObservers(HINT + " south");
-                return;
+            if (configs.get(1).equals(next)){
+                return HINT + " south";
             }
         }
         if (configs.get(2) != null){
-            if (configs.get(2).equals(path.get(1))){
-                this.alertObservers(HINT + " east");
-                return;
+            if (configs.get(2).equals(next)){
+                return HINT + " east";
             }
         }
         if (configs.get(3) != null){
-            if (configs.get(3).equals(path.get(1))){
-                this.alertObservers(HINT + " west");
+            if (configs.get(3).equals(next)){
+                return HINT + " west";
+            }
+        }
+
+        return FAILED_HINT;
+    }
+
+    /**
+     * Gets the configuration one move closer to the solution, searching only when the configuration isn't already
+     * remembered. After a search, every state on the path found is remembered along with its next move.
+     * (Each search gets its own solver, since a cancelled background search may still be finishing)
+     * @param config: the configuration needing a move
+     * @return the next configuration on a shortest path, or null if there is no solution (or it is already solved)
+     * @throws java.util.concurrent.CancellationException: if the thread searching is interrupted
+     * */
+    private TiltConfig nextMove(TiltConfig config){
+        DistanceTable table = this.distances;
+        if (table != null){ // every move can be looked up, so no search is needed
+            int moves = table.distanceOf(config);
+            if (moves == DistanceTable.NO_SOLUTION || moves == 0){
+                return null;
+            }
+            if (moves != DistanceTable.UNKNOWN){
+                for (Configuration con : config.getNeighbors()){ //north, then south, then east, then west
+                    if (con != null && table.distanceOf((TiltConfig) con) == moves - 1){
+                        return (TiltConfig) con;
+                    }
+                }
+            }
+        }
+
+        synchronized (this.nextMoves){
+            TiltConfig next = this.nextMoves.get(config);
+            if (next != null || this.nextMoves.containsKey(config)){
+                return next;
+            }
+        }
+
+        List<Configuration> path = new Solver().BFSSearch(config);
+        this.rememberPath(config, path);
+        return path.size() < 2 ? null : (TiltConfig) path.get(1);
+    }
+
+    /**
+     * Remembers the next move of every state on a path found by a search, for later hints
+     * @param start: the configuration searched from
+     * @param path: the path found (empty if there is no solution)
+     * */
+    private void rememberPath(TiltConfig start, List<Configuration> path){
+        synchronized (this.nextMoves){
+            if (path.size() < 2){
+                this.nextMoves.put(start, null);
                 return;
             }
+            for (int i=path.size() - 2; i>=0; i--){ // the start goes in last, so it is the last to be dropped
+                this.nextMoves.put((TiltConfig) path.get(i), (TiltConfig) path.get(i + 1));
+            }
+        }
+    }
+
+    /**
+     * Plays the solution of the board, one move every playback delay, alerting the viewers with MOVED after each
+     * move. The path is searched for once, in the background, when a playback starts; if a playback is paused it is
+     * resumed instead. Viewers are alerted with PLAYING once the moves start, or with FAILED_HINT if the board has no
+     * solution. Tilting, loading, resetting or quitting stops the playback.
+     * */
+    public synchronized void play(){
+        if (this.playbackTicks != null || this.playbackSearch != null){ // already playing
+            return;
+        }
+        if (this.playbackPath != null){ // paused
+            this.scheduleSteps();
+            this.alertObservers(PLAYING);
+            return;
         }
 
-        this.alertObservers(FAILED_HINT);
+        TiltConfig start = this.currentConfig;
+        this.playbackSearch = this.playbackSearches.submit(() -> {
+            // the solver gives a LinkedList, whose get would walk the list on every move
+            List<Configuration> path = new ArrayList<>(new Solver().BFSSearch(start));
+            this.rememberPath(start, path);
+            this.notifier.execute(() -> this.startPlayback(start, path));
+        });
+    }
+
+    /**
+     * Starts the moves of a playback once its path is found
+     * @param start: the configuration the path was searched from
+     * @param path: the path found
+     * */
+    private synchronized void startPlayback(TiltConfig start, List<Configuration> path){
+        if (this.playbackSearch == null || this.currentConfig != start){ // stopped while searching
+            return;
+        }
+        this.playbackSearch = null;
+        if (path.size() < 2){
+            this.alertObservers(FAILED_HINT);
+            return;
+        }
+        this.playbackPath = path;
+        this.playbackStep = 0;
+        this.scheduleSteps();
+        this.alertObservers(PLAYING);
+    }
+
+    /** starts the timer making the moves of the playback, with the current playback delay */
+    private void scheduleSteps(){
+        this.playbackTicks = this.playbackTimer.scheduleAtFixedRate(() -> this.notifier.execute(this::playStep),
+                this.playbackDelay, this.playbackDelay, TimeUnit.MILLISECONDS);
+    }
+
+    /** makes the next move of the playback, stopping it once the board is solved */
+    private synchronized void playStep(){
+        if (this.playbackTicks == null){ // paused or stopped after this move was timed
+            return;
+        }
+        this.playbackStep++;
+        this.currentConfig = (TiltConfig) this.playbackPath.get(this.playbackStep);
+        boolean finished = this.playbackStep == this.playbackPath.size() - 1;
+        if (finished){
+            this.stopPlayback();
+        }
+        this.alertObservers(MOVED);
+        if (finished){
+            this.alertObservers(PAUSED);
+        }
+    }
+
+    /** pauses the playback, which play resumes from the same move */
+    public synchronized void pause(){
+        if (this.playbackSearch != null){ // nothing to resume yet
+            this.stopPlayback();
+            this.alertObservers(PAUSED);
+        }else if (this.playbackTicks != null){
+            this.playbackTicks.cancel(false);
+            this.playbackTicks = null;
+            this.alertObservers(PAUSED);
+        }
+    }
+
+    /**
+     * checks if a playback is playing (or about to, once its path is found)
+     * @return true if playing, false if paused or there is no playback
+     * */
+    public synchronized boolean isPlaying(){
+        return this.playbackTicks != null || this.playbackSearch != null;
+    }
+
+    /**
+     * Changes the speed of playbacks, which takes effect right away if one is playing
+     * @param millis: the time between moves, in milliseconds (at least 1)
+     * */
+    public synchronized void setPlaybackDelay(long millis){
+        this.playbackDelay = Math.max(1, millis);
+        if (this.playbackTicks != null){
+            this.playbackTicks.cancel(false);
+            this.scheduleSteps();
+        }
+    }
+
+    /** stops the playback, forgetting its path, without alerting the viewers */
+    private void stopPlayback(){
+        if (this.playbackSearch != null){
+            this.playbackSearch.cancel(true);
+            this.playbackSearch = null;
+        }
+        if (this.playbackTicks != null){
+            this.playbackTicks.cancel(false);
+            this.playbackTicks = null;
+        }
+        this.playbackPath = null;
+    }
+
+    /**
+     * Starts building the distance table of a newly loaded board in the background, if the model builds them,
+     * cancelling the build for the board before it. Viewers are alerted with DISTANCES once the table is built, and
+     * until then hints are searched for as usual. Loading the same board again (such as by a reset) keeps its table,
+     * and a board already found to reach too many configurations is never built again.
+     * @param start: the configuration the board was loaded with
+     * */
+    private synchronized void buildDistances(TiltConfig start){
+        if (start.equals(this.loadedStart) && this.pendingTable != null && !this.pendingTable.isCancelled()){
+            return; // the table of this board is already built, or still being built
+        }
+        this.loadedStart = start;
+        this.distances = null;
+        if (this.pendingTable != null){
+            this.pendingTable.cancel(true);
+            this.pendingTable = null;
+        }
+        if (this.tableBuilds == null || this.oversizedBoards.contains(start)){
+            return;
+        }
+        this.pendingTable = this.tableBuilds.submit(() -> {
+            DistanceTable table = DistanceTable.build(start, DISTANCE_TABLE_LIMIT);
+            synchronized (this){
+                if (table == null){ // too big to build
+                    this.oversizedBoards.add(start);
+                    return;
+                }
+                if (this.loadedStart != start){ // another board was loaded
+                    return;
+                }
+                this.distances = table;
+            }
+            this.notifier.execute(() -> {
+                if (this.loadedStart == start){
+                    this.alertObservers(DISTANCES);
+                }
+            });
+        });
+    }
+
+    /**
+     * Gets the fewest moves left to solve the current board, looked up in the distance table of the board
+     * @return the moves left (0 once solved), DistanceTable.NO_SOLUTION if the board can no longer be solved, or
+     * DistanceTable.UNKNOWN while the table isn't built (or is not built at all)
+     * */
+    public int getMovesRemaining(){
+        DistanceTable table = this.distances;
+        return table == null ? DistanceTable.UNKNOWN : table.distanceOf(this.currentConfig);
     }
 
     /** resets the current board and will alert every viewer of the load */
@@ -174,9 +511,58 @@ public class TiltModel {
         }
     }
 
-    /** the constructor which creates the solver and observers of the model */
+    /** the constructor which creates the observers of the model, alerting them of background hints right away */
     public TiltModel(){
-        this.solver = new Solver();
+        this(Runnable::run);
+    }
+
+    /**
+     * the constructor which creates the observers of the model and the thread background hints are searched on
+     * @param notifier: runs the alerts of background hints on the thread the viewers expect (such as
+     *                Platform::runLater for a JavaFX view)
+     * */
+    public TiltModel(Executor notifier){
+        this(notifier, false);
+    }
+
+    /**
+     * the constructor which creates the observers of the model and the threads background work is done on
+     * @param notifier: runs the alerts of background hints on the thread the viewers expect (such as
+     *                Platform::runLater for a JavaFX view)
+     * @param precomputeDistances: if true, the distance table of every board loaded is built in the background, so
+     *                           hints and the moves remaining can be looked up instead of searched for
+     * */
+    public TiltModel(Executor notifier, boolean precomputeDistances){
+        this.notifier = notifier;
+        this.hintSearches = daemonThread("tilt-hint");
+        this.tableBuilds = precomputeDistances ? daemonThread("tilt-distances") : null;
+        this.playbackSearches = daemonThread("tilt-playback-search");
+        this.playbackTimer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "tilt-playback");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.playbackDelay = DEFAULT_PLAYBACK_DELAY;
         this.observers = new LinkedList<>();
+        this.oversizedBoards = new HashSet<>();
+        this.nextMoves = new LinkedHashMap<>(16, 0.75f, true){
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TiltConfig, TiltConfig> eldest) {
+                return this.size() > HINT_CACHE_CAPACITY;
+            }
+        };
+    }
+
+    /**
+     * Creates an executor that runs its tasks one at a time on a single daemon thread
+     * @param name: the name of the thread
+     * @return the executor
+     * */
+    private static ExecutorService daemonThread(String name){
+        return Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, name);
+            thread.setDaemon(true); // never keeps the game open
+            return thread;
+        });
     }
 }
@@ -1,7 +1,7 @@
 package puzzles.tilt.ptui;
 
 import puzzles.common.Observer;
-import puzzles.tilt.model.TiltConfig;
+import puzzles.common.solver.DistanceTable;
 import puzzles.tilt.model.TiltModel;
 
 import java.io.IOException;
@@ -37,6 +37,8 @@ public class TiltPTUI implements Observer<TiltModel, String> {
      * r --> restarts the game
      * q --> quits the game
      * l (txt file) --> loads a file, if the file fails to load, the game is stopped and the player is notified.
+     * p --> plays the solution one move at a time, or pauses it if it is playing
+     * s (milliseconds) --> sets the time between the moves of the solution being played
      * @param input: the input given by the player in the console
      * @throws IndexOutOfBoundsException: if they player inputs something wrong for either t or l there is a chance of an
      * index out of bounds error occurring.
@@ -71,6 +73,23 @@ public class TiltPTUI implements Observer<TiltModel, String> {
                 String file = input.substring(2); // assumes there is a space
                 this.model.loadFile(file);
             }
+            case 'p' -> { // they want to play or pause the solution
+                if (this.model.isPlaying()){
+                    this.model.pause();
+                }else if (!this.model.gameOver()){
+                    this.model.play();
+                }else{
+                    System.out.println("Puzzle already solved");
+                    this.displayBoard();
+                }
+            }
+            case 's' -> { // they want to change the speed of the solution being played
+                try {
+                    this.model.setPlaybackDelay(Long.parseLong(input.substring(2).trim())); // assumes there is a space
+                }catch (NumberFormatException e){
+                    printControls();
+                }
+            }
             default -> { // something was input wrong
                 printControls();
             }
@@ -86,25 +105,42 @@ public class TiltPTUI implements Observer<TiltModel, String> {
                 l(oad) filename     -- load new puzzle file
                 t(ilt) {N|S|E|W}    -- tilt the board in the given direction
                 q(uit)              -- quit the game
-                r(eset)             -- reset the current game""");
+                r(eset)             -- reset the current game
+                p(lay)              -- play or pause the solution
+                s(peed) millis      -- set the time between moves of the solution""");
     }
 
     /**
      * Displays the game board as a two-dimensional array of characters to the console
      * */
-    public void displayBoard(){
-        for (int col = 0; col< TiltConfig.getDIM(); col++){
+    public synchronized void displayBoard(){
+        for (int col = 0; col< this.model.getDIM(); col++){
             System.out.print(" " + col);
         }
 
-        for (int row=0; row<TiltConfig.getDIM(); row++){
+        for (int row=0; row<this.model.getDIM(); row++){
             System.out.println();
             System.out.print(row);
-            for (int col=0; col<TiltConfig.getDIM(); col++){
+            for (int col=0; col<this.model.getDIM(); col++){
                 System.out.print(" " + this.model.getSpot(row, col));
             }
         }
         System.out.println();
+        this.printMovesRemaining();
+    }
+
+    /**
+     * Prints the fewest moves left to solve the board, if the distance table of the board has been built. Printing
+     * is synchronized with displayBoard, since the table is built on another thread, so the line never lands in the
+     * middle of a board.
+     * */
+    private synchronized void printMovesRemaining(){
+        int moves = this.model.getMovesRemaining();
+        if (moves > 0){
+            System.out.println("Moves remaining: " + moves);
+        }else if (moves == DistanceTable.NO_SOLUTION){
+            System.out.println("Moves remaining: no solution");
+        }
     }
 
     /**
@@ -142,6 +178,10 @@ public class TiltPTUI implements Observer<TiltModel, String> {
             this.displayBoard();
         }
 
+        if (message.equals(TiltModel.DISTANCES)){ // arrives from the thread building the table
+            this.printMovesRemaining();
+        }
+
         if (message.equals(TiltModel.MOVED)){
             if (!receivedHint) {
                 System.out.println("Board tilted");
@@ -183,6 +223,14 @@ public class TiltPTUI implements Observer<TiltModel, String> {
             }
         }
 
+        if (message.equals(TiltModel.PLAYING)){
+            System.out.println("Playing the solution");
+        }
+
+        if (message.equals(TiltModel.PAUSED)){
+            System.out.println("Solution paused");
+        }
+
         if (message.equals(TiltModel.FAILED_MOVE)){
             System.out.println("Invalid Move");
             this.displayBoard();
@@ -193,7 +241,7 @@ public class TiltPTUI implements Observer<TiltModel, String> {
      * The constructor of the puzzle which creates the model and adds itself to the list of observers.
      * */
     public TiltPTUI(){
-        this.model = new TiltModel();
+        this.model = new TiltModel(Runnable::run, true);
         input = new Scanner(System.in);
         this.model.addObserver(this);
         this.receivedHint = false;
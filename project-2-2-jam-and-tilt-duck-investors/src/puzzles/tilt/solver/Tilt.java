@@ -1,13 +1,23 @@
 package puzzles.tilt.solver;
 
+import puzzles.common.solver.AStarSolver;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.EncodableConfiguration;
+import puzzles.common.solver.IterativeDeepeningSolver;
 import puzzles.common.solver.Solver;
+import puzzles.tilt.model.TiltBitboardConfig;
 import puzzles.tilt.model.TiltConfig;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Holds the main algorithm for solving the Tilt puzzle using a BFS search.
@@ -15,17 +25,148 @@ import java.util.List;
  * @author Alex Lee
  * */
 public class Tilt {
+    /** the search modes that can be given after the board */
+    private static final List<String> MODES = List.of("parallel", "encoded", "astar", "iddfs", "idastar");
+    /** the most boards the iterative deepening searches remember between expansions */
+    private static final int TABLE_CAPACITY = 1 << 20;
+
+    /**
+     * The outcome of solving one board of a batch
+     * @param name: the name of the board file
+     * @param moves: the number of tilts in the solution, or -1 if there is no solution
+     * @param total: the total configurations created during the search
+     * @param unique: the unique configurations visited during the search
+     * @param millis: how long the board took to load and solve, in milliseconds
+     * */
+    private record BoardResult(String name, int moves, int total, int unique, long millis) {}
+
+    /**
+     * Solves the tilt board held in a file and prints the path to the solution, or solves every board in a directory
+     * at the same time and prints how each of them went
+     * @param args [0]: the file holding the board, or a directory of board files (*.txt);
+     *             [1]: (optional) "parallel" to expand each layer of the search on every core, "encoded" to only
+     *                  keep the encoded bytes of each visited board, "astar" to search towards the boards where
+     *                  the green dots are in line with the hole, or "iddfs"/"idastar" to use an iterative deepening
+     *                  search that only keeps the current path and a bounded table of recent boards.
+     * @throws IOException: if the board file can not be read
+     * */
     public static void main(String[] args) throws IOException{
-        if (args.length != 1) {
-            System.out.println("Usage: java Tilt filename");
+        if (args.length != 1 && (args.length != 2 || !MODES.contains(args[1]))) {
+            System.out.println("Usage: java Tilt filename|directory [parallel|encoded|astar|iddfs|idastar]");
+        }else if (new File(args[0]).isDirectory()){
+            solveAll(new File(args[0]), args.length == 2 ? args[1] : "");
         }else{
             System.out.println("Starting the program");
-            TiltConfig start = new TiltConfig(args[0]);
-            Solver solver = new Solver();
+            EncodableConfiguration start = load(args[0]);
+            Solver solver = solverFor(args.length == 2 ? args[1] : "");
             System.out.print("File: " + args[0]);
             System.out.print(start.toString());
-            List<Configuration> path = solver.BFSSearch(start);
+            List<Configuration> path = solve(solver, start, args.length == 2 ? args[1] : "");
            solver.printPath(path);
         }
     }
+
+    /**
+     * Loads a board from a file
+     * @param fileName: the file holding the board
+     * @return the board, on a bitboard if it is small enough to fit in one (which gives the exact same path)
+     * @throws IOException: if the board file can not be read
+     * */
+    private static EncodableConfiguration load(String fileName) throws IOException{
+        TiltConfig board = new TiltConfig(fileName);
+        return board.getDIM() <= TiltBitboardConfig.MAX_DIM ? new TiltBitboardConfig(board) : board;
+    }
+
+    /**
+     * Creates the solver that runs a search mode
+     * @param mode: one of the search modes, or anything else for the plain BFS search
+     * @return a solver that can run the mode
+     * */
+    private static Solver solverFor(String mode){
+        return switch (mode) {
+            case "astar" -> new AStarSolver();
+            case "iddfs", "idastar" -> new IterativeDeepeningSolver(TABLE_CAPACITY);
+            default -> new Solver();
+        };
+    }
+
+    /**
+     * Searches for the solution of a board
+     * @param solver: the solver to search with (created by {@link #solverFor} for the same mode)
+     * @param start: the board to solve
+     * @param mode: one of the search modes, or anything else for the plain BFS search
+     * @return the path from the board to the solution, empty if there is none
+     * */
+    private static List<Configuration> solve(Solver solver, EncodableConfiguration start, String mode){
+        return switch (mode) {
+            case "parallel" -> solver.parallelBFSSearch(start);
+            case "encoded" -> solver.encodedBFSSearch(start);
+            case "astar" -> ((AStarSolver) solver).AStarSearch(start, Tilt::estimateMovesLeft);
+            case "iddfs" -> ((IterativeDeepeningSolver) solver).IDDFSSearch(start);
+            case "idastar" -> ((IterativeDeepeningSolver) solver).IDAStarSearch(start, Tilt::estimateMovesLeft);
+            default -> solver.BFSSearch(start);
+        };
+    }
+
+    /**
+     * The A* heuristic for either kind of board
+     * @param config: a board loaded by {@link #load}, or one of its neighbors
+     * @return a lower bound on the moves left before the board is solved
+     * */
+    private static int estimateMovesLeft(Configuration config){
+        if (config instanceof TiltBitboardConfig bitboard){
+            return bitboard.estimateMovesLeft();
+        }
+        return ((TiltConfig) config).estimateMovesLeft();
+    }
+
+    /**
+     * Solves every board (*.txt) of a directory concurrently, one board per worker thread, and prints the result of
+     * each board in file name order followed by the time the whole batch took
+     * @param directory: the directory holding the board files
+     * @param mode: the search used on each board (see {@link #solve})
+     * @throws IOException: if a board file can not be read
+     * */
+    private static void solveAll(File directory, String mode) throws IOException{
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files == null || files.length == 0){
+            System.out.println("No boards found in " + directory);
+            return;
+        }
+        Arrays.sort(files);
+
+        List<Callable<BoardResult>> jobs = new ArrayList<>();
+        for (File file : files){
+            jobs.add(() -> {
+                long begin = System.nanoTime();
+                Solver solver = solverFor(mode);
+                List<Configuration> path = solve(solver, load(file.getPath()), mode);
+                return new BoardResult(file.getName(), path.size() - 1, solver.getTotalConfigurations(),
+                        solver.getUniqueConfigurations(), (System.nanoTime() - begin) / 1_000_000);
+            });
+        }
+
+        long begin = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(
+                Math.min(files.length, Runtime.getRuntime().availableProcessors()));
+        try{
+            for (Future<BoardResult> future : workers.invokeAll(jobs)){
+                BoardResult result = future.get();
+                System.out.println(result.name() + ": " +
+                        (result.moves() < 0 ? "No solution" : result.moves() + " moves") +
+                        ", total configs: " + result.total() + ", unique configs: " + result.unique() +
+                        ", " + result.millis() + " ms");
+            }
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }catch (ExecutionException e){
+            if (e.getCause() instanceof IOException ioException){
+                throw ioException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }finally{
+            workers.shutdownNow();
+        }
+        System.out.println("Solved " + files.length + " boards in " + (System.nanoTime() - begin) / 1_000_000 + " ms");
+    }
 }
@@ -1,9 +1,10 @@
 package puzzles.water;
 
+import puzzles.common.solver.AStarSolver;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.IterativeDeepeningSolver;
 import puzzles.common.solver.Solver;
 
-import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -13,29 +14,55 @@ import java.util.List;
  * @author Alex Lee
  */
 public class Water {
+    /** the most configurations the iterative deepening searches remember between expansions */
+    private static final int TABLE_CAPACITY = 1 << 20;
 
     /**
      * Run an instance of the water buckets puzzle.
      *
      * @param args [0]: desired amount of water to be collected;
-     *             [1..N]: the capacities of the N available buckets.
+     *             [1..N]: the capacities of the N available buckets;
+     *             [N+1]: (optional) "parallel" to expand each layer of the search on every core, "encoded" to
+     *                    only keep the encoded bytes of each visited configuration, "astar" to use an A* search, or
+     *                    "iddfs"/"idastar" to use an iterative deepening search that only keeps the current path
+     *                    and a bounded table of recent configurations.
      */
     public static void main(String[] args) {
-        if (args.length < 2) {
+        String mode = args.length > 0 ? args[args.length - 1] : "";
+        boolean parallel = mode.equals("parallel");
+        boolean encoded = mode.equals("encoded");
+        boolean aStar = mode.equals("astar");
+        boolean deepening = mode.equals("iddfs") || mode.equals("idastar");
+        int buckets = parallel || encoded || aStar || deepening ? args.length - 1 : args.length;
+        if (buckets < 2) {
             System.out.println(
-                    ("Usage: java Water amount bucket1 bucket2 ...")
+                    ("Usage: java Water amount bucket1 bucket2 ... [parallel|encoded|astar|iddfs|idastar]")
             );
         } else {
-            Solver solve = new Solver();
+            Solver solve = aStar ? new AStarSolver() :
+                    deepening ? new IterativeDeepeningSolver(TABLE_CAPACITY) : new Solver();
 
-            ArrayList<Integer> caps = new ArrayList<Integer>();
-            for (int i=1; i< args.length; i++){
-                caps.add(Integer.parseInt(args[i]));
+            int[] caps = new int[buckets - 1];
+            for (int i=1; i< buckets; i++){
+                caps[i - 1] = Integer.parseInt(args[i]);
             }
 
-            WaterConfig start = new WaterConfig(caps, Integer.parseInt(args[0]));
+            WaterConfig start = new WaterConfig(new WaterContext(caps, Integer.parseInt(args[0])));
 
-            List<Configuration> path = solve.BFSSearch(start);
+            List<Configuration> path;
+            if (parallel){
+                path = solve.parallelBFSSearch(start);
+            }else if (encoded){
+                path = solve.encodedBFSSearch(start);
+            }else if (aStar){
+                path = ((AStarSolver) solve).AStarSearch(start, WaterConfig::estimateMovesLeft);
+            }else if (mode.equals("iddfs")){
+                path = ((IterativeDeepeningSolver) solve).IDDFSSearch(start);
+            }else if (deepening){
+                path = ((IterativeDeepeningSolver) solve).IDAStarSearch(start, WaterConfig::estimateMovesLeft);
+            }else{
+                path = solve.BFSSearch(start);
+            }
 
             System.out.println("Amount: " + start.getGoal() + ", Buckets: " + start.stringCapacities());
             solve.printPath(path);
@@ -1,8 +1,10 @@
 package puzzles.water;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.EncodableConfiguration;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Holds a configuration of a water puzzle, such that holds that are filled to a certain weight
@@ -12,28 +14,47 @@ import java.util.*;
  *
  * @author Alex Lee
  * */
-public class WaterConfig implements Configuration {
-    /** the weight we want one of the buckets to get */
-    private static int goal; // is the same for all configurations
-    /** the capacities of each of the buckets */
-    private static List<Integer> capacities; // the same for all configurations
-    /** an array holding the weight of each bucket */
+public class WaterConfig implements EncodableConfiguration {
+    /** the capacities, goal and packing of the puzzle, shared by every configuration of it */
+    private final WaterContext context;
+    /** the weight of every bucket packed into a long, if the context packs buckets (0 otherwise) */
+    private final long packed;
+    /**
+     * the packed weights with the buckets of each symmetric group sorted among themselves, which is the same for
+     * every configuration that only differs by swapping buckets of the same capacity
+     * */
+    private final long canonicalPacked;
+    /** an array holding the weight of each bucket, if the context doesn't pack buckets (null otherwise) */
     private final int[] buckets;
+    /** the bucket weights with each symmetric group sorted, like canonicalPacked (null if the buckets are packed) */
+    private final int[] canonical;
 
     /**
      * Gets the goal of the water puzzle
      * @return the aspired weight of one of the buckets
      * */
     public int getGoal() {
-        return goal;
+        return this.context.getGoal();
+    }
+
+    /**
+     * Gets the context shared by every configuration of the puzzle
+     * @return the context of the puzzle
+     * */
+    public WaterContext getContext() {
+        return this.context;
     }
 
     /**
      * Gets an array holding the weight of each bucket
-     * @return an array of integers
+     * @return a new array of integers
      * */
     public int[] getBuckets() {
-        return this.buckets;
+        int[] weights = new int[this.context.getBucketCount()];
+        for (int i=0; i<weights.length; i++){
+            weights[i] = this.level(i);
+        }
+        return weights;
     }
 
     /**
@@ -42,7 +63,7 @@ public class WaterConfig implements Configuration {
      * @return a list of integers representing bucket capacities
      * */
     public List<Integer> getCapacities() {
-        return capacities;
+        return Arrays.stream(this.context.getCapacities()).boxed().toList();
     }
 
     /**
@@ -51,15 +72,7 @@ public class WaterConfig implements Configuration {
      * @return a string of bucket capacities
      * */
     public String stringCapacities(){
-        String printStatement = "[";
-        for (int i=0; i<capacities.size(); i++){
-            printStatement += capacities.get(i);
-            if (i != capacities.size() - 1){
-                printStatement += ", ";
-            }
-        }
-        printStatement += "]";
-        return printStatement;
+        return Arrays.toString(this.context.getCapacities());
     }
 
     /**
@@ -68,18 +81,120 @@ public class WaterConfig implements Configuration {
      * @param goalStart: the weight one bucket must get to beat the puzzle
      * */
     public WaterConfig(List<Integer> capacitiesStart, int  goalStart){
-        this.buckets = new int[capacitiesStart.size()];
-        capacities = capacitiesStart;
-        goal = goalStart;
+        this(new WaterContext(capacitiesStart.stream().mapToInt(Integer::intValue).toArray(), goalStart));
+    }
+
+    /**
+     * A constructor for the starting configuration of a water puzzle, where every bucket is empty
+     * @param context: the capacities and goal of the puzzle
+     * */
+    public WaterConfig(WaterContext context){
+        this.context = context;
+        this.packed = 0;
+        this.canonicalPacked = 0;
+        this.buckets = context.isPacked() ? null : new int[context.getBucketCount()];
+        this.canonical = this.buckets;
     }
 
     /**
-     * A private constructor meant to only be call by other WaterConfigs
+     * A private constructor meant to only be call by other WaterConfigs, for puzzles whose buckets are packed
+     * @param context: the context of the puzzle
+     * @param packed: the weight of every bucket, packed into a long
+     * */
+    private WaterConfig(WaterContext context, long packed){
+        this.context = context;
+        this.packed = packed;
+        this.canonicalPacked = canonicalize(context, packed);
+        this.buckets = null;
+        this.canonical = null;
+    }
+
+    /**
+     * A private constructor meant to only be call by other WaterConfigs, for puzzles whose buckets aren't packed
+     * @param context: the context of the puzzle
      * @param buckets: an int array with the weight of water in each bucket
-     *               (length of buckets needs to be the same among all instances of WaterConfig)
      * */
-    private WaterConfig(int[] buckets){
+    private WaterConfig(WaterContext context, int[] buckets){
+        this.context = context;
+        this.packed = 0;
+        this.canonicalPacked = 0;
         this.buckets = buckets;
+        this.canonical = canonicalize(context, buckets);
+    }
+
+    /**
+     * Sorts the packed weights of the buckets in each symmetric group among themselves. Buckets of the same capacity
+     * can be swapped without changing what the puzzle can do next, so every configuration that only differs by such
+     * swaps ends up with the same canonical weights, and only one of them is visited by a search. The groups are
+     * small, so each is insertion sorted in place, which keeps canonicalizing a neighbor from allocating anything.
+     * @param context: the context of the puzzle
+     * @param packed: the weight of every bucket, packed into a long
+     * @return the canonical packed weights
+     * */
+    private static long canonicalize(WaterContext context, long packed){
+        for (int[] group: context.getSymmetric()){
+            for (int i=1; i<group.length; i++){
+                int weight = context.level(packed, group[i]);
+                int j = i - 1;
+                for (; j>=0 && context.level(packed, group[j]) > weight; j--){ // shifts the heavier weights up
+                    packed = context.withLevel(packed, group[j + 1], context.level(packed, group[j]));
+                }
+                packed = context.withLevel(packed, group[j + 1], weight);
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Sorts the weights of the buckets in each symmetric group among themselves (see the packed version)
+     * @param context: the context of the puzzle
+     * @param buckets: the weight of water in each bucket
+     * @return the canonical weights (the same array if there are no symmetric buckets)
+     * */
+    private static int[] canonicalize(WaterContext context, int[] buckets){
+        if (context.getSymmetric().length == 0){
+            return buckets;
+        }
+        int[] sorted = buckets.clone();
+        for (int[] group: context.getSymmetric()){
+            for (int i=1; i<group.length; i++){
+                int weight = sorted[group[i]];
+                int j = i - 1;
+                for (; j>=0 && sorted[group[j]] > weight; j--){ // shifts the heavier weights up
+                    sorted[group[j + 1]] = sorted[group[j]];
+                }
+                sorted[group[j + 1]] = weight;
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Gets the weight of water in a bucket
+     * @param bucket: the index of the bucket
+     * @return the weight of water in the bucket
+     * */
+    private int level(int bucket){
+        return this.buckets == null ? this.context.level(this.packed, bucket) : this.buckets[bucket];
+    }
+
+    /**
+     * Creates the configuration where two buckets hold new weights and every other bucket is unchanged
+     * @param first: the index of the first bucket
+     * @param firstLevel: the new weight of the first bucket
+     * @param second: the index of the second bucket (may be the same as the first)
+     * @param secondLevel: the new weight of the second bucket
+     * @return the new configuration
+     * */
+    private WaterConfig with(int first, int firstLevel, int second, int secondLevel){
+        if (this.buckets == null){
+            long moved = this.context.withLevel(this.packed, first, firstLevel);
+            return new WaterConfig(this.context, this.context.withLevel(moved, second, secondLevel));
+        }
+        int[] moved = this.buckets.clone();
+        moved[first] = firstLevel;
+        moved[second] = secondLevel;
+        return new WaterConfig(this.context, moved);
     }
 
     /**
@@ -88,14 +203,31 @@ public class WaterConfig implements Configuration {
      * */
     @Override
     public boolean isSolution() {
-        boolean result = false;
-        for (int bucket: buckets){
-            if (bucket == goal){
-                result = true;
-                break;
+        int goal = this.context.getGoal();
+        for (int i=0; i<this.context.getBucketCount(); i++){
+            if (this.level(i) == goal){
+                return true;
             }
         }
-        return result;
+        return false;
+    }
+
+    /**
+     * Checks if the goal can ever be measured out with the puzzle's buckets (see {@link WaterContext#isFeasible()})
+     * @return false if the puzzle can't be solved, true if it might be
+     * */
+    @Override
+    public boolean isSolvable() {
+        return this.context.isFeasible();
+    }
+
+    /**
+     * Estimates the moves left before one of the buckets holds the goal, for use as an A* heuristic. Pouring only ever
+     * changes two buckets, so nothing better than 1 move can be promised for an unsolved configuration.
+     * @return 0 if this configuration is a solution, 1 otherwise
+     * */
+    public int estimateMovesLeft() {
+        return this.isSolution() ? 0 : 1;
     }
 
     /**
@@ -110,59 +242,139 @@ public class WaterConfig implements Configuration {
     @Override
     public Collection<Configuration> getNeighbors() {
         Collection<Configuration> queue = new LinkedList<Configuration>();
+        this.forEachNeighbor(queue::add);
+        return queue;
+    }
 
-        for (int i=0; i<this.buckets.length; i++){
-            if (this.buckets[i] != capacities.get(i)) { // why fill a bucket that full
-                int[] filled = this.buckets.clone();
-                filled[i] = capacities.get(i);
-                queue.add(new WaterConfig(filled));
+    /**
+     * Hands every neighbor to a visitor as it is created, in the same order as getNeighbors
+     * @param visitor: called once with each neighbor
+     * */
+    @Override
+    public void forEachNeighbor(Consumer<Configuration> visitor) {
+        int count = this.context.getBucketCount();
+        for (int i=0; i<count; i++){
+            int level = this.level(i);
+            int capacity = this.context.getCapacity(i);
+            if (level != capacity) { // why fill a bucket that full
+                visitor.accept(this.with(i, capacity, i, capacity));
             }
 
-            if (this.buckets[i] != 0) { // why drain a bucket that empty
-                int[] drained = this.buckets.clone();
-                drained[i] = 0;
-                queue.add(new WaterConfig(drained));
+            if (level != 0) { // why drain a bucket that empty
+                visitor.accept(this.with(i, 0, i, 0));
             }
 
-            for (int k=0; k<this.buckets.length; k++){
-                if (k == i || this.buckets[i] == 0){continue;} // prevents it from filling itself and prevents empty buckets from pouring
+            for (int k=0; k<count; k++){
+                if (k == i || level == 0){continue;} // prevents it from filling itself and prevents empty buckets from pouring
 
-                int[] tempBuckets = this.buckets.clone();
+                int other = this.level(k);
+                int poured = Math.min(level, this.context.getCapacity(k) - other); // all of it, or until k is full
+                visitor.accept(this.with(i, level - poured, k, other + poured));
+            }
 
-                int space = capacities.get(k) - tempBuckets[k];
+        }
+    }
 
-                if (tempBuckets[i] <= space){
-                    tempBuckets[k] += tempBuckets[i];
-                    tempBuckets[i] = 0;
-                }else{
-                    tempBuckets[k] += space;
-                    tempBuckets[i] -= space;
+    /**
+     * Gets the number of bytes a configuration is encoded into. If the capacities allow it, each bucket is packed into
+     * just enough bits to hold its capacity and the whole configuration fits in a long. Otherwise, every bucket takes
+     * 4 bytes.
+     * @return the width of an encoded configuration
+     * */
+    @Override
+    public int getEncodedSize() {
+        if (this.buckets == null){
+            return Math.max(1, (this.context.getPackedBits() + 7) / 8);
+        }
+        return this.buckets.length * Integer.BYTES;
+    }
+
+    /**
+     * Writes the canonical weight of each bucket into an array, so configurations that only differ by swapping buckets
+     * of the same capacity are encoded the same
+     * @param dest: the array being written into
+     * @param offset: the index of the first byte to write
+     * */
+    @Override
+    public void encode(byte[] dest, int offset) {
+        if (this.buckets == null){
+            long code = this.canonicalPacked;
+            for (int i=offset + this.getEncodedSize() - 1; i>=offset; i--){
+                dest[i] = (byte) code;
+                code >>>= 8;
+            }
+        }else{
+            for (int i=0; i<this.canonical.length; i++){
+                for (int b=0; b<Integer.BYTES; b++){
+                    dest[offset + i*Integer.BYTES + b] = (byte) (this.canonical[i] >>> (24 - 8*b));
                 }
+            }
+        }
+    }
 
-                queue.add(new WaterConfig(tempBuckets));
+    /**
+     * Rebuilds a configuration of the puzzle from the encoded weight of each bucket
+     * @param src: the array holding the encoded configuration
+     * @param offset: the index of its first byte
+     * @return the decoded configuration
+     * */
+    @Override
+    public WaterConfig decode(byte[] src, int offset) {
+        if (this.buckets == null){
+            long code = 0;
+            for (int i=offset; i<offset + this.getEncodedSize(); i++){
+                code = (code << 8) | (src[i] & 0xFF);
+            }
+            return this.decode(code);
+        }
+        int[] weights = new int[this.buckets.length];
+        for (int i=0; i<weights.length; i++){
+            for (int b=0; b<Integer.BYTES; b++){
+                weights[i] = (weights[i] << 8) | (src[offset + i*Integer.BYTES + b] & 0xFF);
             }
+        }
+        return new WaterConfig(this.context, weights);
+    }
 
+    /**
+     * Gets the canonical weight of each bucket packed into a long, using just enough bits for each bucket's capacity
+     * @return the encoded configuration
+     * */
+    @Override
+    public long encode() {
+        if (this.buckets == null){
+            return this.canonicalPacked;
         }
-        return queue;
+        return EncodableConfiguration.super.encode();
+    }
+
+    /**
+     * Rebuilds a configuration of the puzzle from the long returned by encode()
+     * @param code: the encoded configuration
+     * @return the decoded configuration
+     * */
+    @Override
+    public WaterConfig decode(long code) {
+        if (this.buckets == null){
+            return new WaterConfig(this.context, code);
+        }
+        return (WaterConfig) EncodableConfiguration.super.decode(code);
     }
 
     /**
      * Check if this object is equal to another
      * an object is equal if,
-     * 1. Is an instance of a WaterConfig
-     * 2. Every bucket has the same weight of water in it
+     * 1. Is an instance of a WaterConfig of the same puzzle (sharing the same context)
+     * 2. Every bucket has the same weight of water in it, once buckets of the same capacity are sorted by weight
+     *    (so swapping the water between two buckets of the same capacity gives an equal configuration)
      * @return true if they are equal, false otherwise
      * */
     @Override
     public boolean equals(Object obj) {
         boolean result = false;
-        if (obj instanceof WaterConfig config) {
-            for (int i = 0; i < this.buckets.length; i++) {
-                if (this.buckets[i] != config.buckets[i]){
-                    return false;
-                }
-            }
-            result = true;
+        if (obj instanceof WaterConfig config && config.context == this.context) {
+            result = this.buckets == null ? this.canonicalPacked == config.canonicalPacked :
+                    Arrays.equals(this.canonical, config.canonical);
         }
         return result;
     }
@@ -173,7 +385,7 @@ public class WaterConfig implements Configuration {
      * */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(this.buckets) + capacities.hashCode() + goal;
+        return this.buckets == null ? Long.hashCode(this.canonicalPacked) : Arrays.hashCode(this.canonical);
     }
 
     /**
@@ -183,15 +395,24 @@ public class WaterConfig implements Configuration {
      * */
     @Override
     public String toString() {
-        String printStatement = "[";
-        for (int i=0; i<this.buckets.length; i++){
-            printStatement += this.buckets[i];
-            if (i != this.buckets.length - 1){
-                printStatement += ", ";
+        StringBuilder weights = new StringBuilder();
+        this.render(weights);
+        return weights.toString();
+    }
+
+    /**
+     * Appends the bucket weights, in the same form as toString, to a builder
+     * @param out: the builder being appended to
+     * */
+    @Override
+    public void render(StringBuilder out) {
+        out.append('[');
+        for (int i=0; i<this.context.getBucketCount(); i++){
+            if (i > 0){
+                out.append(", ");
             }
+            out.append(this.level(i));
         }
-        printStatement += "]";
-
-        return printStatement;
+        out.append(']');
     }
-}
\ No newline at end of file
+}
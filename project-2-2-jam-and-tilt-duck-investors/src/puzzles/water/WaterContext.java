@@ -0,0 +1,179 @@
+package puzzles.water;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Everything about a water puzzle that stays the same while it is solved: the capacity of each bucket, the weight of
+ * water being aimed for, how the buckets are packed into a long, and which buckets share a capacity. One context is
+ * created per puzzle and shared by every configuration of it, so several puzzles can be solved at the same time.
+ * @author Alex Lee
+ * */
+public final class WaterContext {
+    /** the capacity of each bucket */
+    private final int[] capacities;
+    /** the weight we want one of the buckets to get */
+    private final int goal;
+    /** how far each bucket is shifted within a packed long (bucket 0 is the highest), or null if they don't fit */
+    private final int[] shifts;
+    /** the bits each bucket takes up once it is shifted to the bottom of a long */
+    private final long[] masks;
+    /** the total number of bits the packed buckets take */
+    private final int packedBits;
+    /** the indices of the buckets in each group of buckets that share a capacity (groups of one are left out) */
+    private final int[][] symmetric;
+    /** false if no amount of filling, draining and pouring can ever make a bucket hold the goal */
+    private final boolean feasible;
+
+    /**
+     * Creates the context of a water puzzle
+     * @param capacities: the capacity of each bucket
+     * @param goal: the weight one bucket must get to beat the puzzle
+     * */
+    public WaterContext(int[] capacities, int goal){
+        this.capacities = capacities.clone();
+        this.goal = goal;
+
+        int total = 0;
+        int[] widths = new int[capacities.length];
+        this.masks = new long[capacities.length];
+        for (int i=0; i<capacities.length; i++){
+            widths[i] = Integer.SIZE - Integer.numberOfLeadingZeros(capacities[i]);
+            this.masks[i] = (1L << widths[i]) - 1;
+            total += widths[i];
+        }
+        this.packedBits = total;
+        if (total <= Long.SIZE){
+            this.shifts = new int[capacities.length];
+            int shift = total;
+            for (int i=0; i<capacities.length; i++){
+                shift -= widths[i];
+                this.shifts[i] = shift;
+            }
+        }else{
+            this.shifts = null;
+        }
+
+        Map<Integer, int[]> groups = new LinkedHashMap<>();
+        for (int i=0; i<capacities.length; i++){
+            int[] group = groups.getOrDefault(capacities[i], new int[0]);
+            group = Arrays.copyOf(group, group.length + 1);
+            group[group.length - 1] = i;
+            groups.put(capacities[i], group);
+        }
+        this.symmetric = groups.values().stream().filter(group -> group.length > 1).toArray(int[][]::new);
+
+        int divisor = 0;
+        int largest = 0;
+        for (int capacity: capacities){
+            divisor = gcd(divisor, capacity);
+            largest = Math.max(largest, capacity);
+        }
+        // every bucket only ever holds a multiple of the gcd of the capacities, and never more than its capacity
+        this.feasible = this.goal == 0 || (this.goal > 0 && this.goal <= largest && this.goal % divisor == 0);
+    }
+
+    /**
+     * Gets the greatest common divisor of two numbers
+     * @param a: the first number
+     * @param b: the second number
+     * @return the largest number that divides both (the other number if one of them is 0)
+     * */
+    private static int gcd(int a, int b){
+        while (b != 0){
+            int rest = a % b;
+            a = b;
+            b = rest;
+        }
+        return a;
+    }
+
+    /**
+     * Gets the goal of the water puzzle
+     * @return the aspired weight of one of the buckets
+     * */
+    public int getGoal() {
+        return this.goal;
+    }
+
+    /**
+     * Checks if the goal can ever be measured out. Filling, draining and pouring only ever leave a bucket with a
+     * multiple of the greatest common divisor of the capacities, and never more than the largest capacity, so any
+     * other goal can't be reached.
+     * @return false if the puzzle can't be solved, true if it might be
+     * */
+    public boolean isFeasible() {
+        return this.feasible;
+    }
+
+    /**
+     * Gets the number of buckets in the puzzle
+     * @return the number of buckets
+     * */
+    public int getBucketCount() {
+        return this.capacities.length;
+    }
+
+    /**
+     * Gets the capacity of a bucket
+     * @param bucket: the index of the bucket
+     * @return the most water the bucket can hold
+     * */
+    public int getCapacity(int bucket) {
+        return this.capacities[bucket];
+    }
+
+    /**
+     * Gets the capacities of every bucket
+     * @return a copy of the capacity of each bucket
+     * */
+    public int[] getCapacities() {
+        return this.capacities.clone();
+    }
+
+    /**
+     * Checks if the buckets of a configuration can all be packed into a single long
+     * @return true if the capacities fit in 64 bits, false otherwise
+     * */
+    boolean isPacked() {
+        return this.shifts != null;
+    }
+
+    /**
+     * Gets the number of bits the packed buckets take
+     * @return the total width of every bucket
+     * */
+    int getPackedBits() {
+        return this.packedBits;
+    }
+
+    /**
+     * Reads the weight of one bucket out of packed buckets
+     * @param packed: the weight of every bucket, packed into a long
+     * @param bucket: the index of the bucket
+     * @return the weight of water in the bucket
+     * */
+    int level(long packed, int bucket) {
+        return (int) ((packed >>> this.shifts[bucket]) & this.masks[bucket]);
+    }
+
+    /**
+     * Replaces the weight of one bucket in packed buckets
+     * @param packed: the weight of every bucket, packed into a long
+     * @param bucket: the index of the bucket
+     * @param level: the new weight of water in the bucket
+     * @return the packed buckets with the one bucket changed
+     * */
+    long withLevel(long packed, int bucket, int level) {
+        return (packed & ~(this.masks[bucket] << this.shifts[bucket])) | ((long) level << this.shifts[bucket]);
+    }
+
+    /**
+     * Gets the groups of buckets that share a capacity
+     * @return the indices of the buckets in each group (groups of one are left out)
+     * */
+    int[][] getSymmetric() {
+        return this.symmetric;
+    }
+}